@@ -0,0 +1,27 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.pgn.FenUtilities;
+
+// The fixed corpus every benchmark runs on, so results stay comparable between engine changes.
+public enum BenchmarkPositions {
+
+    OPENING("r1bqkbnr/pppp1ppp/2n5/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3"),
+    MIDDLEGAME("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"),
+    ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+
+    private final String fen;
+
+    BenchmarkPositions(final String fen) {
+        this.fen = fen;
+    }
+
+    public String getFen() {
+        return this.fen;
+    }
+
+    public Board createBoard() {
+        return FenUtilities.createGameFromFEN(this.fen);
+    }
+
+}
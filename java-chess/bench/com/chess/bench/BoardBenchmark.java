@@ -0,0 +1,48 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.Piece;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions position;
+
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        this.board = this.position.createBoard();
+    }
+
+    @Benchmark
+    public Board build() {
+        return newBuilder().build();
+    }
+
+    // Player caches its mate test, so the board is rebuilt each time; subtract build() for the test alone.
+    @Benchmark
+    public boolean buildAndTestCheckMate() {
+        return newBuilder().build().currentPlayer().isInCheckMate();
+    }
+
+    private Board.Builder newBuilder() {
+        final Board.Builder builder = new Board.Builder();
+        for (final Piece piece : this.board.getAllPieces()) {
+            builder.setPiece(piece);
+        }
+        builder.setMoveMaker(this.board.currentPlayer().getAlliance());
+        builder.setEnPassantPawn(this.board.getEnPassantPawn());
+        return builder;
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.StockAlphaBeta;
+import com.chess.pgn.FenUtilities;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+// Solve rate and node count of an EPD test suite at a fixed depth, with the search fully
+// width-bound, with each selective technique alone and with all of them. A position counts as
+// solved when the search plays one of its "bm" moves. Without a file the first ten positions of
+// Win at Chess are used. Usage: EpdSuiteReport [depth] [suite.epd]
+public class EpdSuiteReport {
+
+    private static final String[] WIN_AT_CHESS = {
+            "2rr3k/pp3pp1/1nnqbN1p/3pN3/2pP4/2P3Q1/PPB4P/R4RK1 w - - bm Qg6; id \"WAC.001\";",
+            "8/7p/5k2/5p2/p1p2P2/Pr1pPK2/1P1R3P/8 b - - bm Rxb2; id \"WAC.002\";",
+            "5rk1/1ppb3p/p1pb4/6q1/3P1p1r/2P1R2P/PP1BQ1P1/5RKN w - - bm Rg3; id \"WAC.003\";",
+            "r1bq2rk/pp3pbp/2p1p1pQ/7P/3P4/2PB1N2/PP3PPR/2KR4 w - - bm Qxh7+; id \"WAC.004\";",
+            "5k2/6pp/p1qN4/1p1p4/3P4/2PKP2Q/PP3r2/3R4 b - - bm Qc4+; id \"WAC.005\";",
+            "7k/p7/1R5K/6r1/6p1/6P1/8/8 w - - bm Rb7; id \"WAC.006\";",
+            "rnbqkb1r/pppp1ppp/8/4P3/6n1/7P/PPPNPPP1/R1BQKBNR b KQkq - bm Ne3; id \"WAC.007\";",
+            "r4q1k/p2bR1rp/2p2Q1N/5p2/5p2/2P5/PP3PPP/R5K1 w - - bm Rf7; id \"WAC.008\";",
+            "3q1rk1/p4pp1/2pb3p/3p4/6Pr/1PNQ4/P1PB1PP1/4RRK1 b - - bm Bh2+; id \"WAC.009\";",
+            "2br2k1/2q3rn/p2NppQ1/2p1P3/Pp5R/4P3/1P3PPP/3R2K1 w - - bm Rxh7; id \"WAC.010\";"
+    };
+
+    private enum Configuration {
+
+        FULL_WIDTH(builder -> builder.setSelectiveSearch(false)),
+        NULL_MOVE(builder -> builder.setSelectiveSearch(false).setNullMovePruning(true)),
+        LATE_MOVE_REDUCTIONS(builder -> builder.setSelectiveSearch(false).setLateMoveReductions(true)),
+        REVERSE_FUTILITY(builder -> builder.setSelectiveSearch(false).setReverseFutilityPruning(true)),
+        FUTILITY(builder -> builder.setSelectiveSearch(false).setFutilityPruning(true)),
+        SELECTIVE(builder -> builder.setSelectiveSearch(true));
+
+        private final UnaryOperator<StockAlphaBeta.Builder> settings;
+
+        Configuration(final UnaryOperator<StockAlphaBeta.Builder> settings) {
+            this.settings = settings;
+        }
+
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        final List<String> suite = args.length > 1 ?
+                Files.readAllLines(Paths.get(args[1]), StandardCharsets.UTF_8) : Arrays.asList(WIN_AT_CHESS);
+        final List<EpdPosition> positions = new ArrayList<>();
+        for (final String line : suite) {
+            if (!line.trim().isEmpty()) {
+                positions.add(new EpdPosition(line));
+            }
+        }
+        System.out.printf("%d positions, depth %d%n", positions.size(), depth);
+        long fullWidthNodes = 0;
+        for (final Configuration configuration : Configuration.values()) {
+            long nodes = 0;
+            int solved = 0;
+            final long start = System.nanoTime();
+            for (final EpdPosition position : positions) {
+                final StockAlphaBeta search = configuration.settings.apply(new StockAlphaBeta.Builder())
+                        .setSearchDepth(depth)
+                        .build();
+                final Move move = search.execute(position.board);
+                nodes += search.getNumBoardsEvaluated();
+                if (position.isBestMove(move)) {
+                    solved++;
+                }
+            }
+            if (configuration == Configuration.FULL_WIDTH) {
+                fullWidthNodes = nodes;
+            }
+            System.out.printf("%-22s solved %3d/%-3d nodes %12d (%5.1f%% of full width) %7d ms%n",
+                    configuration, solved, positions.size(), nodes, 100.0 * nodes / fullWidthNodes,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static class EpdPosition {
+
+        private final Board board;
+        private final List<String> bestMoves;
+
+        EpdPosition(final String line) {
+            final String[] fields = line.trim().split("\\s+", 5);
+            if (fields.length < 5) {
+                throw new IllegalArgumentException("Not an EPD record: " + line);
+            }
+            this.board = FenUtilities.createGameFromFEN(String.join(" ", fields[0], fields[1], fields[2], fields[3]));
+            this.bestMoves = new ArrayList<>();
+            for (final String operation : fields[4].split(";")) {
+                final String[] operands = operation.trim().split("\\s+");
+                if (operands[0].equals("bm")) {
+                    for (int i = 1; i < operands.length; i++) {
+                        this.bestMoves.add(normalize(operands[i]));
+                    }
+                }
+            }
+        }
+
+        // Move.toString writes SAN, so the best moves are matched as written, less check marks and annotations.
+        boolean isBestMove(final Move move) {
+            return this.bestMoves.contains(normalize(move.toString()));
+        }
+
+        private static String normalize(final String san) {
+            return san.replaceAll("[+#!?]", "");
+        }
+
+    }
+
+}
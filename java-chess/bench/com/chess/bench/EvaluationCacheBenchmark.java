@@ -0,0 +1,76 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.EvaluationCache;
+import com.chess.engine.player.ai.StockAlphaBeta;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// A fixed-depth search with and without the evaluation cache. The cache does not change the tree, so
+// the ratio of the two throughputs is the change in nodes per second. The search counters are reported
+// as rates next to the throughput: nodes is the nodes per second, and cacheHits over cacheProbes the
+// hit rate of the cache.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationCacheBenchmark {
+
+    private static final int SEARCH_DEPTH = 6;
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions position;
+
+    @Param({"0", "262144"})
+    public int evaluationCacheSizeInEntries;
+
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        this.board = this.position.createBoard();
+    }
+
+    // A new search each time, so every one starts from empty tables.
+    @Benchmark
+    public Object search(final SearchCounters counters) {
+        final StockAlphaBeta search = createSearch();
+        final Move move = search.execute(this.board);
+        counters.nodes += search.getNumBoardsEvaluated();
+        final EvaluationCache evaluationCache = search.getEvaluationCache();
+        if (evaluationCache != null) {
+            counters.cacheHits += evaluationCache.getHits();
+            counters.cacheProbes += evaluationCache.getHits() + evaluationCache.getMisses();
+        }
+        return move;
+    }
+
+    private StockAlphaBeta createSearch() {
+        return new StockAlphaBeta.Builder()
+                .setSearchDepth(SEARCH_DEPTH)
+                .setEvaluationCacheSizeInEntries(this.evaluationCacheSizeInEntries)
+                .build();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class SearchCounters {
+
+        public long nodes;
+        public long cacheHits;
+        public long cacheProbes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.nodes = 0;
+            this.cacheHits = 0;
+            this.cacheProbes = 0;
+        }
+
+    }
+
+}
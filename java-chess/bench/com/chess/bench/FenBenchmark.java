@@ -0,0 +1,48 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.pgn.FenUtilities;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// FEN reading and writing in positions per second. parseInPlace reads the position out of an EPD
+// record, as a batch loader does, without cutting the record into fields first.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions position;
+
+    private String fen;
+    private String epdRecord;
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        this.fen = this.position.getFen();
+        this.epdRecord = this.fen + " bm e4; id \"" + this.position + "\";";
+        this.board = this.position.createBoard();
+    }
+
+    @Benchmark
+    public Board parse() {
+        return FenUtilities.createGameFromFEN(this.fen);
+    }
+
+    @Benchmark
+    public Board parseInPlace() {
+        return FenUtilities.createGameFromFEN(this.epdRecord, 0, this.epdRecord.length());
+    }
+
+    @Benchmark
+    public String write() {
+        return FenUtilities.createFENFromGame(this.board);
+    }
+
+}
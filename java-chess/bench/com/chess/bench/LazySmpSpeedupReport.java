@@ -0,0 +1,55 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.player.ai.StockAlphaBeta;
+
+// Time-to-depth of the Lazy SMP search at 1, 2, 4, 8 and 16 threads over the benchmark positions.
+// Every run starts from an empty transposition table; the speedup is the single-thread time divided
+// by the time at that thread count. Usage: LazySmpSpeedupReport [depth] [runs]
+public class LazySmpSpeedupReport {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+
+    public static void main(final String[] args) {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        System.out.printf("available processors %d, depth %d, best of %d runs%n",
+                Runtime.getRuntime().availableProcessors(), depth, runs);
+        final long[] baseline = new long[BenchmarkPositions.values().length];
+        for (final int threadCount : THREAD_COUNTS) {
+            long totalNanos = 0;
+            long baselineNanos = 0;
+            final StringBuilder line = new StringBuilder(String.format("threads %2d", threadCount));
+            for (final BenchmarkPositions position : BenchmarkPositions.values()) {
+                final long nanos = timeToDepth(position.createBoard(), depth, threadCount, runs);
+                if (threadCount == THREAD_COUNTS[0]) {
+                    baseline[position.ordinal()] = nanos;
+                }
+                totalNanos += nanos;
+                baselineNanos += baseline[position.ordinal()];
+                line.append(String.format("  %s %7d ms", position, nanos / 1_000_000));
+            }
+            line.append(String.format("  total %7d ms  speedup %.2f", totalNanos / 1_000_000,
+                    (double) baselineNanos / totalNanos));
+            System.out.println(line);
+        }
+    }
+
+    private static long timeToDepth(final Board board,
+                                    final int depth,
+                                    final int threadCount,
+                                    final int runs) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            final StockAlphaBeta search = new StockAlphaBeta.Builder()
+                    .setSearchDepth(depth)
+                    .setThreadCount(threadCount)
+                    .build();
+            final long start = System.nanoTime();
+            search.execute(board);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Each benchmark walks every legal move of the side to move once per invocation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions position;
+
+    private Board board;
+    private List<Move> moves;
+
+    @Setup
+    public void setUp() {
+        this.board = this.position.createBoard();
+        this.moves = new ArrayList<>(this.board.currentPlayer().getLegalMoves());
+    }
+
+    @Benchmark
+    public void execute(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(move.execute());
+        }
+    }
+
+    @Benchmark
+    public void makeMove(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(this.board.currentPlayer().makeMove(move));
+        }
+    }
+
+    @Benchmark
+    public void createMove(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(MoveFactory.createMove(this.board, move.getCurrentCoordinate(), move.getDestinationCoordinate()));
+        }
+    }
+
+    // Writes SAN through SANUtilities on a SearchBoard made from the board of each move.
+    @Benchmark
+    public void moveToString(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(move.toString());
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.chess.bench;
+
+import com.chess.engine.player.ai.StockAlphaBeta;
+
+// Nodes and first-move cutoff rate of a fixed-depth search over the benchmark positions, with the
+// killer move, counter move and history heuristics off and on. Every search starts from an empty
+// transposition table. Usage: MoveOrderingReport [depth]
+public class MoveOrderingReport {
+
+    public static void main(final String[] args) {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        System.out.printf("depth %d%n", depth);
+        for (final boolean orderingHeuristics : new boolean[] {false, true}) {
+            long totalNodes = 0;
+            final StringBuilder line = new StringBuilder(orderingHeuristics ? "heuristics on " : "heuristics off");
+            for (final BenchmarkPositions position : BenchmarkPositions.values()) {
+                final StockAlphaBeta search = new StockAlphaBeta.Builder()
+                        .setSearchDepth(depth)
+                        .setOrderingHeuristics(orderingHeuristics)
+                        .build();
+                search.execute(position.createBoard());
+                totalNodes += search.getNumBoardsEvaluated();
+                line.append(String.format("  %s %9d fmc %.3f", position, search.getNumBoardsEvaluated(),
+                        search.getFirstMoveCutoffRate()));
+            }
+            line.append(String.format("  total %10d", totalNodes));
+            System.out.println(line);
+        }
+    }
+
+}
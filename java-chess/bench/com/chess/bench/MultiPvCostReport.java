@@ -0,0 +1,38 @@
+package com.chess.bench;
+
+import com.chess.engine.player.ai.StockAlphaBeta;
+
+// Nodes a multi-PV search takes for 1, 2, 4 and 8 lines over the benchmark positions, from an empty
+// transposition table each time. The cost is the node count relative to the single line search; K
+// separate searches would cost K. Usage: MultiPvCostReport [depth]
+public class MultiPvCostReport {
+
+    private static final int[] LINE_COUNTS = {1, 2, 4, 8};
+
+    public static void main(final String[] args) {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        System.out.printf("depth %d%n", depth);
+        final long[] baseline = new long[BenchmarkPositions.values().length];
+        for (final int lineCount : LINE_COUNTS) {
+            long totalNodes = 0;
+            long baselineNodes = 0;
+            final StringBuilder line = new StringBuilder(String.format("lines %d", lineCount));
+            for (final BenchmarkPositions position : BenchmarkPositions.values()) {
+                final StockAlphaBeta search = new StockAlphaBeta.Builder()
+                        .setSearchDepth(depth)
+                        .build();
+                search.analyze(position.createBoard(), lineCount, null);
+                final long nodes = search.getNumBoardsEvaluated();
+                if (lineCount == LINE_COUNTS[0]) {
+                    baseline[position.ordinal()] = nodes;
+                }
+                totalNodes += nodes;
+                baselineNodes += baseline[position.ordinal()];
+                line.append(String.format("  %s %9d", position, nodes));
+            }
+            line.append(String.format("  total %10d  cost %.2f", totalNodes, (double) totalNodes / baselineNodes));
+            System.out.println(line);
+        }
+    }
+
+}
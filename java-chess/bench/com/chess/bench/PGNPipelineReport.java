@@ -0,0 +1,135 @@
+package com.chess.bench;
+
+import com.chess.pgn.PGNGame;
+import com.chess.pgn.PGNPipeline;
+import com.chess.pgn.PGNUtilities;
+import com.chess.pgn.PGNWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Games per second of the PGNPipeline at 1, 2, 4, 8 and 16 threads over one PGN file, in file order
+// and as the chunks finish. The speedup is the single-thread rate divided into the rate at that
+// thread count. Before timing, the games of both orders are checked against the sequential reader
+// at a few chunk sizes, over the file and over a copy of its first games with a clock comment
+// wrapped onto its own line after every move, the way pgn-extract wraps them.
+// Usage: PGNPipelineReport file.pgn [runs]
+public class PGNPipelineReport {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+    private static final int[] CHECK_CHUNK_SIZES = {1, 1000, 1 << 16, PGNPipeline.DEFAULT_CHUNK_SIZE_IN_BYTES};
+    private static final int COMMENTED_GAMES = 200;
+
+    public static void main(final String[] args) throws IOException {
+        final File pgnFile = new File(args[0]);
+        final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        final File commentedFile = File.createTempFile("commented", ".pgn");
+        commentedFile.deleteOnExit();
+        writeCommentedCopy(pgnFile, commentedFile);
+        if (!checkEquivalence(pgnFile) | !checkEquivalence(commentedFile)) {
+            System.exit(1);
+        }
+        System.out.printf("available processors %d, %s, best of %d runs%n",
+                Runtime.getRuntime().availableProcessors(), pgnFile, runs);
+        // once untimed, so the first row is not paying for the warm-up
+        new PGNPipeline.Builder().build().run(pgnFile, game -> { });
+        for (final boolean ordered : new boolean[] {true, false}) {
+            double baseline = 0;
+            for (final int threadCount : THREAD_COUNTS) {
+                final PGNPipeline pipeline = new PGNPipeline.Builder()
+                        .setThreadCount(threadCount)
+                        .setOrdered(ordered)
+                        .build();
+                PGNPipeline.Summary best = null;
+                for (int i = 0; i < runs; i++) {
+                    final PGNPipeline.Summary summary = pipeline.run(pgnFile, game -> { });
+                    if (best == null || summary.getElapsedNanos() < best.getElapsedNanos()) {
+                        best = summary;
+                    }
+                }
+                if (threadCount == THREAD_COUNTS[0]) {
+                    baseline = best.getGamesPerSecond();
+                }
+                System.out.printf("%s threads %2d  %s  speedup %.2f%n", ordered ? "ordered  " : "unordered",
+                        threadCount, best, best.getGamesPerSecond() / baseline);
+            }
+        }
+    }
+
+    // Whether the pipeline gives the games of the sequential reader: in the same order when ordered,
+    // and the same games in any order otherwise.
+    private static boolean checkEquivalence(final File pgnFile) throws IOException {
+        final List<String> expected = new ArrayList<>();
+        PGNUtilities.readPGNFile(pgnFile, game -> expected.add(describe(game)));
+        final List<String> sortedExpected = new ArrayList<>(expected);
+        Collections.sort(sortedExpected);
+        boolean matches = true;
+        for (final int chunkSize : CHECK_CHUNK_SIZES) {
+            for (final boolean ordered : new boolean[] {true, false}) {
+                final List<String> games = new ArrayList<>();
+                new PGNPipeline.Builder()
+                        .setChunkSizeInBytes(chunkSize)
+                        .setOrdered(ordered)
+                        .build()
+                        .run(pgnFile, game -> games.add(describe(game.getGame())));
+                if (!ordered) {
+                    Collections.sort(games);
+                }
+                if (!games.equals(ordered ? expected : sortedExpected)) {
+                    System.out.printf("MISMATCH %s chunk size %d %s: %d games, %d expected%n", pgnFile, chunkSize,
+                            ordered ? "ordered" : "unordered", games.size(), expected.size());
+                    matches = false;
+                }
+            }
+        }
+        System.out.printf("%s: %d games, ordered and unordered %s the sequential reader%n", pgnFile,
+                expected.size(), matches ? "match" : "do not match");
+        return matches;
+    }
+
+    private static String describe(final PGNGame game) {
+        return game.getTags() + " " + Arrays.toString(game.getPackedMoves()) + " " + game.getResult() + " " +
+                game.isValid();
+    }
+
+    private static void writeCommentedCopy(final File pgnFile,
+                                           final File commentedFile) throws IOException {
+        final List<PGNGame> games = new ArrayList<>();
+        PGNUtilities.readPGNFile(pgnFile, game -> {
+            if (games.size() < COMMENTED_GAMES) {
+                games.add(game);
+            }
+        });
+        final StringWriter text = new StringWriter();
+        try (final PGNWriter writer = new PGNWriter(text)) {
+            for (final PGNGame game : games) {
+                writer.writeGame(game);
+            }
+        }
+        final StringBuilder commented = new StringBuilder();
+        for (final String line : text.toString().split("\n", -1)) {
+            if (line.isEmpty() || line.startsWith("[")) {
+                commented.append(line).append('\n');
+                continue;
+            }
+            for (final String token : line.split(" ")) {
+                commented.append(token);
+                if (!token.contains(".") && !token.equals("1-0") && !token.equals("0-1") &&
+                        !token.equals("1/2-1/2") && !token.equals("*")) {
+                    commented.append(" {\n[%clk 0:02:59] }");
+                }
+                commented.append(' ');
+            }
+            commented.append('\n');
+        }
+        Files.write(commentedFile.toPath(), commented.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.chess.bench;
+
+import com.chess.engine.player.ai.PawnHashTable;
+import com.chess.engine.player.ai.StockAlphaBeta;
+
+// Nodes per second of a fixed-depth search over the benchmark positions without and with the pawn hash
+// table, and the hit rate of the table. The table does not change the tree, so the node counts must
+// match. The corpus is searched once untimed for the warmup, then the best of the timed runs counts.
+// Usage: PawnHashReport [depth] [runs]
+public class PawnHashReport {
+
+    public static void main(final String[] args) {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : 9;
+        final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        System.out.printf("depth %d, best of %d runs%n", depth, runs);
+        for (final BenchmarkPositions position : BenchmarkPositions.values()) {
+            search(position, depth, 0);
+            search(position, depth, PawnHashTable.DEFAULT_SIZE_IN_ENTRIES);
+        }
+        for (final BenchmarkPositions position : BenchmarkPositions.values()) {
+            final StringBuilder line = new StringBuilder(String.format("%-10s", position));
+            for (final int pawnHashSizeInEntries : new int[] {0, PawnHashTable.DEFAULT_SIZE_IN_ENTRIES}) {
+                long bestNanos = Long.MAX_VALUE;
+                StockAlphaBeta search = null;
+                for (int i = 0; i < runs; i++) {
+                    final long start = System.nanoTime();
+                    search = search(position, depth, pawnHashSizeInEntries);
+                    bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+                }
+                line.append(String.format("  %s %9d nodes %9.0f nps", pawnHashSizeInEntries == 0 ? "off" : "on ",
+                        search.getNumBoardsEvaluated(), search.getNumBoardsEvaluated() * 1e9 / bestNanos));
+                if (search.getPawnHashTable() != null) {
+                    line.append(String.format(" hit rate %.3f", search.getPawnHashHitRate()));
+                }
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static StockAlphaBeta search(final BenchmarkPositions position,
+                                         final int depth,
+                                         final int pawnHashSizeInEntries) {
+        final StockAlphaBeta search = new StockAlphaBeta.Builder()
+                .setSearchDepth(depth)
+                .setPawnHashSizeInEntries(pawnHashSizeInEntries)
+                .build();
+        search.execute(position.createBoard());
+        return search;
+    }
+
+}
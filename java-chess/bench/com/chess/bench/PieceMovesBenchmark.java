@@ -0,0 +1,46 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public BenchmarkPositions position;
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    public PieceType pieceType;
+
+    private Board board;
+    private List<Piece> pieces;
+
+    @Setup
+    public void setUp() {
+        this.board = this.position.createBoard();
+        this.pieces = this.board.getAllPieces().stream()
+                .filter(piece -> piece.getPieceType() == this.pieceType)
+                .collect(Collectors.toList());
+    }
+
+    // One call per piece of the type on the board, both sides.
+    @Benchmark
+    public void calculateLegalMoves(final Blackhole blackhole) {
+        for (final Piece piece : this.pieces) {
+            blackhole.consume(piece.calculateLegalMoves(this.board));
+        }
+    }
+
+}
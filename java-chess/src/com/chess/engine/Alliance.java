@@ -68,6 +68,11 @@ public enum Alliance {
         public int kingBonus(final int position) {
             return WHITE_KING_PREFERRED_COORDINATES[position];
         }
+
+        @Override
+        public int kingMiddleGameBonus(final int position) {
+            return WHITE_KING_MIDDLE_GAME_PREFERRED_COORDINATES[position];
+        }
         },
     BLACK {
         @Override
@@ -132,6 +137,11 @@ public enum Alliance {
         @Override
         public int kingBonus(final int position) {
             return BLACK_KING_PREFERRED_COORDINATES[position];
+        }
+
+        @Override
+        public int kingMiddleGameBonus(final int position) {
+            return BLACK_KING_MIDDLE_GAME_PREFERRED_COORDINATES[position];
         }};
 
     public abstract int getDirection();
@@ -146,6 +156,8 @@ public enum Alliance {
     public abstract int rookBonus(int position);
     public abstract int queenBonus(int position);
     public abstract int kingBonus(int position);
+    // kingBonus draws the king to the centre, which only suits the endgame; before that it stays sheltered
+    public abstract int kingMiddleGameBonus(int position);
 
     private static final int UP_DIRECTION = -1;
 
@@ -283,4 +295,26 @@ public enum Alliance {
             -50,-30,-30,-30,-30,-30,-30,-50
     };
 
+    private final static int[] WHITE_KING_MIDDLE_GAME_PREFERRED_COORDINATES = {
+            -30,-40,-40,-50,-50,-40,-40,-30,
+            -30,-40,-40,-50,-50,-40,-40,-30,
+            -30,-40,-40,-50,-50,-40,-40,-30,
+            -30,-40,-40,-50,-50,-40,-40,-30,
+            -20,-30,-30,-40,-40,-30,-30,-20,
+            -10,-20,-20,-20,-20,-20,-20,-10,
+             20, 20,  0,  0,  0,  0, 20, 20,
+             20, 30, 10,  0,  0, 10, 30, 20
+    };
+
+    private final static int[] BLACK_KING_MIDDLE_GAME_PREFERRED_COORDINATES = {
+             20, 30, 10,  0,  0, 10, 30, 20,
+             20, 20,  0,  0,  0,  0, 20, 20,
+            -10,-20,-20,-20,-20,-20,-20,-10,
+            -20,-30,-30,-40,-40,-30,-30,-20,
+            -30,-40,-40,-50,-50,-40,-40,-30,
+            -30,-40,-40,-50,-50,-40,-40,-30,
+            -30,-40,-40,-50,-50,-40,-40,-30,
+            -30,-40,-40,-50,-50,-40,-40,-30
+    };
+
 }
\ No newline at end of file
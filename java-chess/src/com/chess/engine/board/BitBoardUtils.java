@@ -0,0 +1,132 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+
+import static com.chess.engine.board.BoardUtils.NUM_TILES;
+import static com.chess.engine.board.BoardUtils.NUM_TILES_PER_ROW;
+
+// Bit i of every mask is tile coordinate i, so bit 0 is a8 and bit 63 is h1.
+public enum BitBoardUtils {
+
+    INSTANCE;
+
+    public static final long EMPTY = 0L;
+    public static final int NUM_PIECE_TYPES = Piece.PieceType.values().length;
+    public static final int NUM_PIECE_INDEXES = NUM_PIECE_TYPES * Alliance.values().length;
+
+    private static final long[] KNIGHT_ATTACKS = initLeaperAttacks(new int[][] {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}});
+    private static final long[] KING_ATTACKS = initLeaperAttacks(new int[][] {
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}});
+    private static final long[] WHITE_PAWN_ATTACKS = initLeaperAttacks(new int[][] {{-1, -1}, {-1, 1}});
+    private static final long[] BLACK_PAWN_ATTACKS = initLeaperAttacks(new int[][] {{1, -1}, {1, 1}});
+    private static final long[][] BETWEEN = new long[NUM_TILES][NUM_TILES];
+    private static final long[][] LINE = new long[NUM_TILES][NUM_TILES];
+
+    static {
+        initLines();
+    }
+
+    public static long squareMask(final int coordinate) {
+        return 1L << coordinate;
+    }
+
+    public static boolean isSet(final long bitBoard,
+                                final int coordinate) {
+        return (bitBoard & (1L << coordinate)) != 0;
+    }
+
+    public static int firstCoordinate(final long bitBoard) {
+        return Long.numberOfTrailingZeros(bitBoard);
+    }
+
+    public static long clearFirst(final long bitBoard) {
+        return bitBoard & (bitBoard - 1);
+    }
+
+    public static int pieceIndex(final Alliance alliance,
+                                 final Piece.PieceType pieceType) {
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    public static long knightAttacks(final int coordinate) {
+        return KNIGHT_ATTACKS[coordinate];
+    }
+
+    public static long kingAttacks(final int coordinate) {
+        return KING_ATTACKS[coordinate];
+    }
+
+    public static long pawnAttacks(final Alliance alliance,
+                                   final int coordinate) {
+        return alliance.isWhite() ? WHITE_PAWN_ATTACKS[coordinate] : BLACK_PAWN_ATTACKS[coordinate];
+    }
+
+    // Tiles strictly between two tiles on a shared row, column or diagonal; empty if they are not aligned.
+    public static long between(final int from,
+                               final int to) {
+        return BETWEEN[from][to];
+    }
+
+    // The whole row, column or diagonal through both tiles, edge to edge; empty if they are not aligned.
+    public static long line(final int from,
+                            final int to) {
+        return LINE[from][to];
+    }
+
+    private static void initLines() {
+        for (int from = 0; from < NUM_TILES; from++) {
+            for (int to = 0; to < NUM_TILES; to++) {
+                final int rowDelta = to / NUM_TILES_PER_ROW - from / NUM_TILES_PER_ROW;
+                final int columnDelta = to % NUM_TILES_PER_ROW - from % NUM_TILES_PER_ROW;
+                if (from == to || (rowDelta != 0 && columnDelta != 0 && Math.abs(rowDelta) != Math.abs(columnDelta))) {
+                    continue;
+                }
+                final int rowStep = Integer.signum(rowDelta);
+                final int columnStep = Integer.signum(columnDelta);
+                long between = EMPTY;
+                for (int tile = from + rowStep * NUM_TILES_PER_ROW + columnStep; tile != to;
+                     tile += rowStep * NUM_TILES_PER_ROW + columnStep) {
+                    between |= squareMask(tile);
+                }
+                BETWEEN[from][to] = between;
+                LINE[from][to] = ray(from, rowStep, columnStep) | ray(from, -rowStep, -columnStep) | squareMask(from);
+            }
+        }
+    }
+
+    private static long ray(final int coordinate,
+                            final int rowStep,
+                            final int columnStep) {
+        long mask = EMPTY;
+        int row = coordinate / NUM_TILES_PER_ROW + rowStep;
+        int column = coordinate % NUM_TILES_PER_ROW + columnStep;
+        while (row >= 0 && row < NUM_TILES_PER_ROW && column >= 0 && column < NUM_TILES_PER_ROW) {
+            mask |= squareMask(row * NUM_TILES_PER_ROW + column);
+            row += rowStep;
+            column += columnStep;
+        }
+        return mask;
+    }
+
+    private static long[] initLeaperAttacks(final int[][] rowColumnOffsets) {
+        final long[] attacks = new long[NUM_TILES];
+        for (int coordinate = 0; coordinate < NUM_TILES; coordinate++) {
+            final int row = coordinate / NUM_TILES_PER_ROW;
+            final int column = coordinate % NUM_TILES_PER_ROW;
+            long mask = EMPTY;
+            for (final int[] offset : rowColumnOffsets) {
+                final int targetRow = row + offset[0];
+                final int targetColumn = column + offset[1];
+                if (targetRow >= 0 && targetRow < NUM_TILES_PER_ROW &&
+                        targetColumn >= 0 && targetColumn < NUM_TILES_PER_ROW) {
+                    mask |= squareMask(targetRow * NUM_TILES_PER_ROW + targetColumn);
+                }
+            }
+            attacks[coordinate] = mask;
+        }
+        return attacks;
+    }
+
+}
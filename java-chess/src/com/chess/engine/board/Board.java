@@ -15,7 +15,10 @@ import java.util.stream.Stream;
 // Author : Sampriyo Guin
 public final class Board {
 
-    private final Map<Integer, Piece> boardConfig;
+    private final Piece[] boardConfig;
+    private final long[] pieceBitBoards;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
     private final WhitePlayer whitePlayer;
@@ -23,13 +26,17 @@ public final class Board {
     private final Player currentPlayer;
     private final Pawn enPassantPawn;
     private final Move transitionMove;
+    private final long zobristKey;
 
     private static final Board STANDARD_BOARD = createStandardBoardImpl();
 
     private Board(final Builder builder) {
-        this.boardConfig = Collections.unmodifiableMap(builder.boardConfig);
-        this.whitePieces = calculateActivePieces(builder, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(builder, Alliance.BLACK);
+        this.boardConfig = builder.boardConfig.clone();
+        this.pieceBitBoards = calculatePieceBitBoards(this.boardConfig);
+        this.whiteOccupancy = calculateOccupancy(this.pieceBitBoards, Alliance.WHITE);
+        this.blackOccupancy = calculateOccupancy(this.pieceBitBoards, Alliance.BLACK);
+        this.whitePieces = calculateActivePieces(this.boardConfig, Alliance.WHITE);
+        this.blackPieces = calculateActivePieces(this.boardConfig, Alliance.BLACK);
         this.enPassantPawn = builder.enPassantPawn;
         final Collection<Move> whiteStandardMoves = calculateLegalMoves(this.whitePieces);
         final Collection<Move> blackStandardMoves = calculateLegalMoves(this.blackPieces);
@@ -37,13 +44,14 @@ public final class Board {
         this.blackPlayer = new BlackPlayer(this, whiteStandardMoves, blackStandardMoves);
         this.currentPlayer = builder.nextMoveMaker.choosePlayerByAlliance(this.whitePlayer, this.blackPlayer);
         this.transitionMove = builder.transitionMove != null ? builder.transitionMove : Move.MoveFactory.getNullMove();
+        this.zobristKey = builder.hasZobristKey ? builder.zobristKey : Zobrist.calculateKey(this);
     }
 
     @Override
     public String toString() {
         final StringBuilder builder = new StringBuilder();
         for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            final String tileText = prettyPrint(this.boardConfig.get(i));
+            final String tileText = prettyPrint(this.boardConfig[i]);
             builder.append(String.format("%3s", tileText));
             if ((i + 1) % 8 == 0) {
                 builder.append("\n");
@@ -91,7 +99,24 @@ public final class Board {
     }
 
     public Piece getPiece(final int coordinate) {
-        return this.boardConfig.get(coordinate);
+        return this.boardConfig[coordinate];
+    }
+
+    public long getPieceBitBoard(final Alliance alliance,
+                                 final Piece.PieceType pieceType) {
+        return this.pieceBitBoards[BitBoardUtils.pieceIndex(alliance, pieceType)];
+    }
+
+    public long getOccupancy(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    public long getOccupancy() {
+        return this.whiteOccupancy | this.blackOccupancy;
+    }
+
+    public boolean isTileOccupied(final int coordinate) {
+        return BitBoardUtils.isSet(getOccupancy(), coordinate);
     }
 
     public Pawn getEnPassantPawn() {
@@ -102,6 +127,10 @@ public final class Board {
         return this.transitionMove;
     }
 
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
     public static Board createStandardBoard() {
         return STANDARD_BOARD;
     }
@@ -153,26 +182,53 @@ public final class Board {
                 .collect(Collectors.toList());
     }
 
-    private static Collection<Piece> calculateActivePieces(final Builder builder,
+    private static Collection<Piece> calculateActivePieces(final Piece[] boardConfig,
                                                            final Alliance alliance) {
-        return builder.boardConfig.values().stream()
-                .filter(piece -> piece.getPieceAlliance() == alliance)
-                .collect(Collectors.toList());
+        final List<Piece> activePieces = new ArrayList<>(16);
+        for (final Piece piece : boardConfig) {
+            if (piece != null && piece.getPieceAlliance() == alliance) {
+                activePieces.add(piece);
+            }
+        }
+        return activePieces;
+    }
+
+    private static long[] calculatePieceBitBoards(final Piece[] boardConfig) {
+        final long[] bitBoards = new long[BitBoardUtils.NUM_PIECE_INDEXES];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = boardConfig[i];
+            if (piece != null) {
+                bitBoards[BitBoardUtils.pieceIndex(piece.getPieceAlliance(), piece.getPieceType())] |=
+                        BitBoardUtils.squareMask(i);
+            }
+        }
+        return bitBoards;
+    }
+
+    private static long calculateOccupancy(final long[] pieceBitBoards,
+                                           final Alliance alliance) {
+        long occupancy = BitBoardUtils.EMPTY;
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            occupancy |= pieceBitBoards[BitBoardUtils.pieceIndex(alliance, pieceType)];
+        }
+        return occupancy;
     }
 
     public static class Builder {
 
-        Map<Integer, Piece> boardConfig;
+        Piece[] boardConfig;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
         Move transitionMove;
+        long zobristKey;
+        boolean hasZobristKey;
 
         public Builder() {
-            this.boardConfig = new HashMap<>(32, 1.0f);
+            this.boardConfig = new Piece[BoardUtils.NUM_TILES];
         }
 
         public Builder setPiece(final Piece piece) {
-            this.boardConfig.put(piece.getPiecePosition(), piece);
+            this.boardConfig[piece.getPiecePosition()] = piece;
             return this;
         }
 
@@ -191,6 +247,13 @@ public final class Board {
             return this;
         }
 
+        // Moves pass the key they updated incrementally; any other board hashes itself on build.
+        Builder setZobristKey(final long zobristKey) {
+            this.zobristKey = zobristKey;
+            this.hasZobristKey = true;
+            return this;
+        }
+
         public Board build() {
             return new Board(this);
         }
@@ -106,12 +106,17 @@ public enum  BoardUtils {
     }
 
     public static int mvvlva(final Move move) {
-        final Piece movingPiece = move.getMovedPiece();
-        if(move.isAttack()) {
-            final Piece attackedPiece = move.getAttackedPiece();
-            return (attackedPiece.getPieceValue() - movingPiece.getPieceValue() +  Piece.PieceType.KING.getPieceValue()) * 100;
+        return mvvlva(move.getMovedPiece().getPieceType(),
+                move.isAttack() ? move.getAttackedPiece().getPieceType() : null);
+    }
+
+    // The same ordering for packed moves; attackedPieceType is null for a quiet move.
+    public static int mvvlva(final Piece.PieceType movingPieceType,
+                             final Piece.PieceType attackedPieceType) {
+        if(attackedPieceType != null) {
+            return (attackedPieceType.getPieceValue() - movingPieceType.getPieceValue() +  Piece.PieceType.KING.getPieceValue()) * 100;
         }
-        return Piece.PieceType.KING.getPieceValue() - movingPiece.getPieceValue();
+        return Piece.PieceType.KING.getPieceValue() - movingPieceType.getPieceValue();
     }
 
     public static List<Move> lastNMoves(final Board board, int N) {
@@ -0,0 +1,155 @@
+package com.chess.engine.board;
+
+import static com.chess.engine.board.BoardUtils.NUM_TILES;
+import static com.chess.engine.board.BoardUtils.NUM_TILES_PER_ROW;
+
+// Fancy magic bitboards: every sliding attack set is one multiply, shift and array load.
+// The magics below were found offline by a seeded random search over this tile numbering (a8 = 0);
+// at class load each table is filled from the reference ray walk and any destructive collision fails fast.
+public enum MagicBitBoards {
+
+    INSTANCE;
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] ROOK_MAGICS = {
+            0xA080001820400080L, 0x0040002000401000L, 0x0180300160008008L, 0x0480040800801001L,
+            0x2A00081084204200L, 0x0480018012003400L, 0x0600010082000428L, 0x420002250C018042L,
+            0x0040800040002080L, 0x000040002000500CL, 0x2002004022001080L, 0x0026002200400810L,
+            0x2000808008000400L, 0x0022000200883104L, 0x2C88808001000200L, 0x1112000080420104L,
+            0x0100908000400020L, 0x0080808020004000L, 0x0008410010200300L, 0x0014808010000801L,
+            0x0080050011004800L, 0x00D1010002080400L, 0x3221540021080210L, 0x1000120005288244L,
+            0x020C400080248002L, 0x4020411200220082L, 0x8028100080200881L, 0x1210001100090020L,
+            0x005A005200084520L, 0x0080040080020080L, 0x00D6002200280401L, 0x440B210A00006884L,
+            0x0880401028800080L, 0x2000802008804000L, 0x2160001041002900L, 0x0800080080801000L,
+            0x0444820400800800L, 0x0000040080800200L, 0x0080028104001028L, 0x2808104102000894L,
+            0x0000800100450024L, 0x0000408102020020L, 0x2000200100110044L, 0x0110040008004040L,
+            0x0000080005010010L, 0x0002001088120044L, 0x0008100208040001L, 0x000100008045002AL,
+            0x0001002040800100L, 0x1602209200490200L, 0x1109100020008880L, 0x5000100100200900L,
+            0x0000040080080080L, 0x0003000204000900L, 0x4220080630035400L, 0x6140801100006080L,
+            0x1009234100800039L, 0x8000201200804102L, 0x5004100822004082L, 0x2802000440100822L,
+            0x0801008408001017L, 0x0002000108041062L, 0x8040121108129044L, 0x0400032411008242L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x01A0C20202002A00L, 0x2320810102008401L, 0x0408820402218000L, 0x10024081010C0040L,
+            0x4104042001041200L, 0x8400902420001100L, 0x001108220220001AL, 0xAA80240208040300L,
+            0x21C8089014080060L, 0x0000020214140090L, 0x0280040C0C104000L, 0x18B0022082084040L,
+            0x4004040420810801L, 0x4448008804402804L, 0x4081091401044000L, 0x20404C8848021008L,
+            0xC251800510100100L, 0x0620200802808200L, 0xA111000206020200L, 0x8001002020408000L,
+            0x0024011084A00006L, 0x202040020110010AL, 0x004A048088042300L, 0x004840A104208C20L,
+            0x0010C82044481000L, 0x0081041208080820L, 0x0040240008004408L, 0x2804010000200880L,
+            0x0504040000410050L, 0x100A008014100090L, 0x8212008007480848L, 0x0021020001328424L,
+            0x0001901000082008L, 0x0A01086000031400L, 0x0030140202440800L, 0x4084820080180480L,
+            0x0081010400C20020L, 0x8010010040020042L, 0x80241804A0360082L, 0x044C009201108440L,
+            0xA104020241301000L, 0x00808C10020B0922L, 0x0012042208000100L, 0x8000004012021041L,
+            0x8082400B02100B00L, 0x0040408808425680L, 0x20621A0441180400L, 0x4022240848808201L,
+            0x0004840120122000L, 0x1000420210420002L, 0xC800404044108100L, 0x4009800A10440000L,
+            0x011D010510440840L, 0x80008A2048408024L, 0x1062024418088201L, 0x3004410809250010L,
+            0x2820818409114080L, 0x0000042402080404L, 0x0200090020841000L, 0x0082090000842408L,
+            0x1010080060024424L, 0x1100600488100100L, 0x0022082204681210L, 0x0140288094008024L
+    };
+
+    private static final long[] ROOK_MASKS = new long[NUM_TILES];
+    private static final int[] ROOK_SHIFTS = new int[NUM_TILES];
+    private static final long[][] ROOK_ATTACKS = new long[NUM_TILES][];
+    private static final long[] BISHOP_MASKS = new long[NUM_TILES];
+    private static final int[] BISHOP_SHIFTS = new int[NUM_TILES];
+    private static final long[][] BISHOP_ATTACKS = new long[NUM_TILES][];
+    private static final long INITIALIZATION_NANOS;
+
+    static {
+        final long start = System.nanoTime();
+        for (int coordinate = 0; coordinate < NUM_TILES; coordinate++) {
+            initSquare(coordinate, ROOK_DIRECTIONS, ROOK_MAGICS[coordinate], ROOK_MASKS, ROOK_SHIFTS, ROOK_ATTACKS);
+            initSquare(coordinate, BISHOP_DIRECTIONS, BISHOP_MAGICS[coordinate], BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+        }
+        INITIALIZATION_NANOS = System.nanoTime() - start;
+    }
+
+    public static long rookAttacks(final int coordinate,
+                                   final long occupancy) {
+        return ROOK_ATTACKS[coordinate][(int) (((occupancy & ROOK_MASKS[coordinate]) * ROOK_MAGICS[coordinate]) >>> ROOK_SHIFTS[coordinate])];
+    }
+
+    public static long bishopAttacks(final int coordinate,
+                                     final long occupancy) {
+        return BISHOP_ATTACKS[coordinate][(int) (((occupancy & BISHOP_MASKS[coordinate]) * BISHOP_MAGICS[coordinate]) >>> BISHOP_SHIFTS[coordinate])];
+    }
+
+    public static long queenAttacks(final int coordinate,
+                                    final long occupancy) {
+        return rookAttacks(coordinate, occupancy) | bishopAttacks(coordinate, occupancy);
+    }
+
+    public static long getInitializationNanos() {
+        return INITIALIZATION_NANOS;
+    }
+
+    // The reference ray walk: each ray stops at, and includes, the first occupied tile.
+    static long slidingAttacks(final int coordinate,
+                               final long occupancy,
+                               final int[][] directions) {
+        long attacks = BitBoardUtils.EMPTY;
+        for (final int[] direction : directions) {
+            int row = coordinate / NUM_TILES_PER_ROW + direction[0];
+            int column = coordinate % NUM_TILES_PER_ROW + direction[1];
+            while (row >= 0 && row < NUM_TILES_PER_ROW && column >= 0 && column < NUM_TILES_PER_ROW) {
+                final long target = BitBoardUtils.squareMask(row * NUM_TILES_PER_ROW + column);
+                attacks |= target;
+                if ((occupancy & target) != 0) {
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    // Tiles whose occupancy can change the attack set: the rays without their last tile.
+    private static long relevantOccupancyMask(final int coordinate,
+                                              final int[][] directions) {
+        long mask = BitBoardUtils.EMPTY;
+        for (final int[] direction : directions) {
+            int row = coordinate / NUM_TILES_PER_ROW + direction[0];
+            int column = coordinate % NUM_TILES_PER_ROW + direction[1];
+            while (row + direction[0] >= 0 && row + direction[0] < NUM_TILES_PER_ROW &&
+                    column + direction[1] >= 0 && column + direction[1] < NUM_TILES_PER_ROW) {
+                mask |= BitBoardUtils.squareMask(row * NUM_TILES_PER_ROW + column);
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static void initSquare(final int coordinate,
+                                   final int[][] directions,
+                                   final long magic,
+                                   final long[] masks,
+                                   final int[] shifts,
+                                   final long[][] attackTables) {
+        final long mask = relevantOccupancyMask(coordinate, directions);
+        final int relevantBits = Long.bitCount(mask);
+        final int shift = NUM_TILES - relevantBits;
+        final long[] table = new long[1 << relevantBits];
+        final boolean[] filled = new boolean[table.length];
+        long occupancy = BitBoardUtils.EMPTY;
+        do {
+            final long attacks = slidingAttacks(coordinate, occupancy, directions);
+            final int index = (int) ((occupancy * magic) >>> shift);
+            if (filled[index] && table[index] != attacks) {
+                throw new IllegalStateException("magic collision on tile " + coordinate);
+            }
+            filled[index] = true;
+            table[index] = attacks;
+            occupancy = (occupancy - mask) & mask;
+        } while (occupancy != BitBoardUtils.EMPTY);
+        masks[coordinate] = mask;
+        shifts[coordinate] = shift;
+        attackTables[coordinate] = table;
+    }
+
+}
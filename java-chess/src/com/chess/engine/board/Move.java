@@ -4,6 +4,7 @@ import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.board.Board.Builder;
 import com.chess.engine.pieces.Rook;
+import com.chess.pgn.SANUtilities;
 
 import java.util.Objects;
 
@@ -90,6 +91,7 @@ public abstract class Move {
         builder.setPiece(this.movedPiece.movePiece(this));
         builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
         builder.setMoveTransition(this);
+        builder.setZobristKey(calculateZobristKey());
         return builder.build();
     }
 
@@ -100,14 +102,29 @@ public abstract class Move {
         return builder.build();
     }
 
-    String disambiguationFile() {
-        for(final Move move : this.board.currentPlayer().getLegalMoves()) {
-            if(move.getDestinationCoordinate() == this.destinationCoordinate && !this.equals(move) &&
-                    this.movedPiece.getPieceType().equals(move.getMovedPiece().getPieceType())) {
-                return BoardUtils.INSTANCE.getPositionAtCoordinate(this.movedPiece.getPiecePosition()).substring(0, 1);
-            }
-        }
-        return "";
+    // The key of the board this move leads to, updated from the key of the board it is played on:
+    // the moved piece swaps tiles, any captured piece leaves, and side, castling and en passant keys turn over.
+    long calculateZobristKey() {
+        final int castlingRights = SearchBoard.calculateCastlingRights(this.board);
+        long key = this.board.getZobristKey() ^ Zobrist.sideKey() ^
+                Zobrist.pieceKey(this.movedPiece) ^ Zobrist.pieceKey(this.movedPiece, this.destinationCoordinate) ^
+                Zobrist.castlingKey(castlingRights) ^
+                Zobrist.castlingKey(SearchBoard.updateCastlingRights(castlingRights, getCurrentCoordinate(), this.destinationCoordinate));
+        if (isAttack()) {
+            key ^= Zobrist.pieceKey(getAttackedPiece());
+        }
+        if (this.board.getEnPassantPawn() != null) {
+            key ^= Zobrist.enPassantKey(this.board.getEnPassantPawn().getPiecePosition());
+        }
+        return key;
+    }
+
+    // The move in SAN, check and mate marks included, as SANUtilities writes it on the board it is played on
+    // with the side of the moved piece to move.
+    @Override
+    public String toString() {
+        return SANUtilities.toSAN(SearchBoard.fromBoard(this.board, this.movedPiece.getPieceAlliance()),
+                MoveCodec.encode(this));
     }
 
     public enum MoveStatus {
@@ -173,9 +190,16 @@ public abstract class Move {
             builder.setPiece(this.promotionPiece.movePiece(this));
             builder.setMoveMaker(pawnMovedBoard.currentPlayer().getAlliance());
             builder.setMoveTransition(this);
+            builder.setZobristKey(pawnMovedBoard.getZobristKey() ^
+                    Zobrist.pieceKey(this.promotedPawn, this.destinationCoordinate) ^
+                    Zobrist.pieceKey(this.promotionPiece, this.destinationCoordinate));
             return builder.build();
         }
 
+        public Piece getPromotionPiece() {
+            return this.promotionPiece;
+        }
+
         @Override
         public boolean isAttack() {
             return this.decoratedMove.isAttack();
@@ -186,12 +210,6 @@ public abstract class Move {
             return this.decoratedMove.getAttackedPiece();
         }
 
-        @Override
-        public String toString() {
-            return BoardUtils.INSTANCE.getPositionAtCoordinate(this.movedPiece.getPiecePosition()) + "-" +
-                    BoardUtils.INSTANCE.getPositionAtCoordinate(this.destinationCoordinate) + "=" + this.promotionPiece.getPieceType();
-        }
-
     }
 
     public static class MajorMove
@@ -208,12 +226,6 @@ public abstract class Move {
             return this == other || other instanceof MajorMove && super.equals(other);
         }
 
-        @Override
-        public String toString() {
-            return movedPiece.getPieceType().toString() + disambiguationFile() +
-                    BoardUtils.INSTANCE.getPositionAtCoordinate(this.destinationCoordinate);
-        }
-
     }
 
     public static class MajorAttackMove
@@ -232,12 +244,6 @@ public abstract class Move {
 
         }
 
-        @Override
-        public String toString() {
-            return movedPiece.getPieceType() + disambiguationFile() + "x" +
-                    BoardUtils.INSTANCE.getPositionAtCoordinate(this.destinationCoordinate);
-        }
-
     }
 
     public static class PawnMove
@@ -254,11 +260,6 @@ public abstract class Move {
             return this == other || other instanceof PawnMove && super.equals(other);
         }
 
-        @Override
-        public String toString() {
-            return BoardUtils.INSTANCE.getPositionAtCoordinate(this.destinationCoordinate);
-        }
-
     }
 
     public static class PawnAttackMove
@@ -276,12 +277,6 @@ public abstract class Move {
             return this == other || other instanceof PawnAttackMove && super.equals(other);
         }
 
-        @Override
-        public String toString() {
-            return BoardUtils.INSTANCE.getPositionAtCoordinate(this.movedPiece.getPiecePosition()).substring(0, 1) + "x" +
-                    BoardUtils.INSTANCE.getPositionAtCoordinate(this.destinationCoordinate);
-        }
-
     }
 
     public static class PawnEnPassantAttack extends PawnAttackMove {
@@ -306,6 +301,7 @@ public abstract class Move {
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
             builder.setMoveTransition(this);
+            builder.setZobristKey(calculateZobristKey());
             return builder.build();
         }
 
@@ -344,14 +340,10 @@ public abstract class Move {
             builder.setEnPassantPawn(movedPawn);
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
             builder.setMoveTransition(this);
+            builder.setZobristKey(calculateZobristKey() ^ Zobrist.enPassantKey(this.destinationCoordinate));
             return builder.build();
         }
 
-        @Override
-        public String toString() {
-            return BoardUtils.INSTANCE.getPositionAtCoordinate(this.destinationCoordinate);
-        }
-
     }
 
     static abstract class CastleMove
@@ -395,6 +387,9 @@ public abstract class Move {
             builder.setPiece(new Rook(this.castleRook.getPieceAlliance(), this.castleRookDestination, false));
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
             builder.setMoveTransition(this);
+            builder.setZobristKey(calculateZobristKey() ^
+                    Zobrist.pieceKey(this.castleRook, this.castleRookStart) ^
+                    Zobrist.pieceKey(this.castleRook, this.castleRookDestination));
             return builder.build();
         }
 
@@ -446,11 +441,6 @@ public abstract class Move {
             return super.equals(otherKingSideCastleMove) && this.castleRook.equals(otherKingSideCastleMove.getCastleRook());
         }
 
-        @Override
-        public String toString() {
-            return "O-O";
-        }
-
     }
 
     public static class QueenSideCastleMove
@@ -478,11 +468,6 @@ public abstract class Move {
             return super.equals(otherQueenSideCastleMove) && this.castleRook.equals(otherQueenSideCastleMove.getCastleRook());
         }
 
-        @Override
-        public String toString() {
-            return "O-O-O";
-        }
-
     }
 
     public static abstract class AttackMove
@@ -0,0 +1,120 @@
+package com.chess.engine.board;
+
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.Move.PawnEnPassantAttack;
+import com.chess.engine.board.Move.PawnJump;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// A move packed into the low 16 bits of an int: from tile (6 bits), to tile (6 bits) and a 4 bit flag.
+// Flag bit 2 marks a capture and bit 3 a promotion, whose low two bits select knight, bishop, rook or queen.
+public enum MoveCodec {
+
+    INSTANCE;
+
+    public static final int NULL_MOVE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int KNIGHT_PROMOTION = 8;
+    public static final int BISHOP_PROMOTION = 9;
+    public static final int ROOK_PROMOTION = 10;
+    public static final int QUEEN_PROMOTION = 11;
+    public static final int KNIGHT_PROMOTION_CAPTURE = 12;
+    public static final int BISHOP_PROMOTION_CAPTURE = 13;
+    public static final int ROOK_PROMOTION_CAPTURE = 14;
+    public static final int QUEEN_PROMOTION_CAPTURE = 15;
+
+    private static final int CAPTURE_BIT = 4;
+    private static final int PROMOTION_BIT = 8;
+
+    public static int encode(final int from,
+                             final int to,
+                             final int flag) {
+        return from | (to << 6) | (flag << 12);
+    }
+
+    public static int getFrom(final int move) {
+        return move & 0x3F;
+    }
+
+    public static int getTo(final int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int getFlag(final int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(final int move) {
+        return (getFlag(move) & CAPTURE_BIT) != 0;
+    }
+
+    public static boolean isPromotion(final int move) {
+        return (getFlag(move) & PROMOTION_BIT) != 0;
+    }
+
+    public static boolean isCastle(final int move) {
+        final int flag = getFlag(move);
+        return flag == KING_CASTLE || flag == QUEEN_CASTLE;
+    }
+
+    // PieceType ordinal of the promotion piece, or SearchBoard.NO_PROMOTION.
+    public static int getPromotionType(final int move) {
+        return isPromotion(move) ? (getFlag(move) & 3) + PieceType.KNIGHT.ordinal() : SearchBoard.NO_PROMOTION;
+    }
+
+    public static int promotionFlag(final PieceType promotionType,
+                                    final boolean isCapture) {
+        return PROMOTION_BIT | (isCapture ? CAPTURE_BIT : 0) | (promotionType.ordinal() - PieceType.KNIGHT.ordinal());
+    }
+
+    public static int encode(final Move move) {
+        if (move == MoveFactory.getNullMove()) {
+            return NULL_MOVE;
+        }
+        final int from = move.getCurrentCoordinate();
+        final int to = move.getDestinationCoordinate();
+        final int flag;
+        if (move instanceof PawnPromotion) {
+            flag = promotionFlag(((PawnPromotion) move).getPromotionPiece().getPieceType(), move.isAttack());
+        } else if (move.isCastlingMove()) {
+            flag = to > from ? KING_CASTLE : QUEEN_CASTLE;
+        } else if (move instanceof PawnEnPassantAttack) {
+            flag = EN_PASSANT;
+        } else if (move instanceof PawnJump) {
+            flag = DOUBLE_PAWN_PUSH;
+        } else {
+            flag = move.isAttack() ? CAPTURE : QUIET;
+        }
+        return encode(from, to, flag);
+    }
+
+    // Finds the Board move that the packed move stands for, or the null move if it is not legal there.
+    public static Move decode(final Board board,
+                              final int move) {
+        if (move != NULL_MOVE) {
+            for (final Move candidate : board.currentPlayer().getLegalMoves()) {
+                if (encode(candidate) == move) {
+                    return candidate;
+                }
+            }
+        }
+        return MoveFactory.getNullMove();
+    }
+
+    public static String toString(final int move) {
+        if (move == NULL_MOVE) {
+            return "0000";
+        }
+        final String text = BoardUtils.INSTANCE.getPositionAtCoordinate(getFrom(move)) +
+                BoardUtils.INSTANCE.getPositionAtCoordinate(getTo(move));
+        return isPromotion(move) ?
+                text + PieceType.values()[getPromotionType(move)].toString().toLowerCase() : text;
+    }
+
+}
@@ -0,0 +1,290 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import static com.chess.engine.board.MoveCodec.*;
+
+// Fills a MoveList with packed moves for the side to move of a SearchBoard without allocating.
+public enum MoveGenerator {
+
+    INSTANCE;
+
+    private static final long FIRST_COLUMN = 0x0101010101010101L;
+    private static final long EIGHTH_COLUMN = 0x8080808080808080L;
+    private static final long FIRST_ROW = 0xFFL << 56;
+    private static final long THIRD_ROW = 0xFFL << 40;
+    private static final long SIXTH_ROW = 0xFFL << 16;
+    private static final long EIGHTH_ROW = 0xFFL;
+    private static final long ALL_TILES = ~0L;
+
+    // Every move the pieces can make, including ones that leave the own king attacked. Castles are
+    // only generated when they are fully legal, since their legality depends on the squares passed.
+    public static void generatePseudoLegalMoves(final SearchBoard board,
+                                                final MoveList moves) {
+        moves.clear();
+        final Alliance us = board.getSideToMove();
+        final Alliance them = us.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        final long own = board.getOccupancy(us);
+        final long enemies = board.getOccupancy(them);
+        final long occupancy = own | enemies;
+        final long pawns = board.getPieceBitBoard(us, PieceType.PAWN);
+        generatePawnMoves(us, pawns, enemies, occupancy, ALL_TILES, moves);
+        generateEnPassant(board, us, pawns, false, moves);
+        long knights = board.getPieceBitBoard(us, PieceType.KNIGHT);
+        while (knights != BitBoardUtils.EMPTY) {
+            final int from = BitBoardUtils.firstCoordinate(knights);
+            knights = BitBoardUtils.clearFirst(knights);
+            addMoves(from, BitBoardUtils.knightAttacks(from) & ~own, enemies, moves);
+        }
+        long diagonalSliders = board.getPieceBitBoard(us, PieceType.BISHOP) | board.getPieceBitBoard(us, PieceType.QUEEN);
+        while (diagonalSliders != BitBoardUtils.EMPTY) {
+            final int from = BitBoardUtils.firstCoordinate(diagonalSliders);
+            diagonalSliders = BitBoardUtils.clearFirst(diagonalSliders);
+            addMoves(from, MagicBitBoards.bishopAttacks(from, occupancy) & ~own, enemies, moves);
+        }
+        long orthogonalSliders = board.getPieceBitBoard(us, PieceType.ROOK) | board.getPieceBitBoard(us, PieceType.QUEEN);
+        while (orthogonalSliders != BitBoardUtils.EMPTY) {
+            final int from = BitBoardUtils.firstCoordinate(orthogonalSliders);
+            orthogonalSliders = BitBoardUtils.clearFirst(orthogonalSliders);
+            addMoves(from, MagicBitBoards.rookAttacks(from, occupancy) & ~own, enemies, moves);
+        }
+        final int king = board.getKingCoordinate(us);
+        addMoves(king, BitBoardUtils.kingAttacks(king) & ~own, enemies, moves);
+        generateCastles(board, us, them, occupancy, moves);
+    }
+
+    // Only the moves that do not leave the own king attacked. Checkers and pinned pieces are found once
+    // up front: in double check only the king moves, in single check every other piece must capture the
+    // checker or block on the tiles between, and a pinned piece stays on the line through its king.
+    public static void generateLegalMoves(final SearchBoard board,
+                                          final MoveList moves) {
+        generateLegalMoves(board, false, moves);
+    }
+
+    // The legal captures, en passant included, and promotions, for the quiescence search.
+    public static void generateLegalCaptures(final SearchBoard board,
+                                             final MoveList moves) {
+        generateLegalMoves(board, true, moves);
+    }
+
+    private static void generateLegalMoves(final SearchBoard board,
+                                           final boolean capturesOnly,
+                                           final MoveList moves) {
+        moves.clear();
+        final Alliance us = board.getSideToMove();
+        final Alliance them = us.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        final long own = board.getOccupancy(us);
+        final long enemies = board.getOccupancy(them);
+        final long occupancy = own | enemies;
+        final int king = board.getKingCoordinate(us);
+        // the king is lifted off the board so that it cannot hide behind itself from a slider
+        long kingTargets = BitBoardUtils.kingAttacks(king) & (capturesOnly ? enemies : ~own);
+        while (kingTargets != BitBoardUtils.EMPTY) {
+            final int to = BitBoardUtils.firstCoordinate(kingTargets);
+            kingTargets = BitBoardUtils.clearFirst(kingTargets);
+            if (board.getAttackers(to, them, occupancy ^ BitBoardUtils.squareMask(king)) == BitBoardUtils.EMPTY) {
+                moves.add(encode(king, to, BitBoardUtils.isSet(enemies, to) ? CAPTURE : QUIET));
+            }
+        }
+        final long checkers = board.getAttackers(king, them, occupancy);
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+        final long evasions = checkers == BitBoardUtils.EMPTY ? ALL_TILES :
+                checkers | BitBoardUtils.between(king, BitBoardUtils.firstCoordinate(checkers));
+        final long targets = evasions & (capturesOnly ? enemies : ~own);
+        // pawns push onto the promotion row as well as capture
+        final long pawnTargets = capturesOnly ? evasions & (enemies | (us.isWhite() ? EIGHTH_ROW : FIRST_ROW)) : evasions;
+        final long pinned = calculatePinnedPieces(board, us, them, king, own, occupancy);
+        final long pawns = board.getPieceBitBoard(us, PieceType.PAWN);
+        generatePawnMoves(us, pawns & ~pinned, enemies, occupancy, pawnTargets, moves);
+        long pinnedPawns = pawns & pinned;
+        while (pinnedPawns != BitBoardUtils.EMPTY) {
+            final int from = BitBoardUtils.firstCoordinate(pinnedPawns);
+            pinnedPawns = BitBoardUtils.clearFirst(pinnedPawns);
+            generatePawnMoves(us, BitBoardUtils.squareMask(from), enemies, occupancy,
+                    pawnTargets & BitBoardUtils.line(king, from), moves);
+        }
+        generateEnPassant(board, us, pawns, true, moves);
+        long knights = board.getPieceBitBoard(us, PieceType.KNIGHT) & ~pinned;
+        while (knights != BitBoardUtils.EMPTY) {
+            final int from = BitBoardUtils.firstCoordinate(knights);
+            knights = BitBoardUtils.clearFirst(knights);
+            addMoves(from, BitBoardUtils.knightAttacks(from) & targets, enemies, moves);
+        }
+        long diagonalSliders = board.getPieceBitBoard(us, PieceType.BISHOP) | board.getPieceBitBoard(us, PieceType.QUEEN);
+        while (diagonalSliders != BitBoardUtils.EMPTY) {
+            final int from = BitBoardUtils.firstCoordinate(diagonalSliders);
+            diagonalSliders = BitBoardUtils.clearFirst(diagonalSliders);
+            addMoves(from, MagicBitBoards.bishopAttacks(from, occupancy) & targets &
+                    pinRay(king, from, pinned), enemies, moves);
+        }
+        long orthogonalSliders = board.getPieceBitBoard(us, PieceType.ROOK) | board.getPieceBitBoard(us, PieceType.QUEEN);
+        while (orthogonalSliders != BitBoardUtils.EMPTY) {
+            final int from = BitBoardUtils.firstCoordinate(orthogonalSliders);
+            orthogonalSliders = BitBoardUtils.clearFirst(orthogonalSliders);
+            addMoves(from, MagicBitBoards.rookAttacks(from, occupancy) & targets &
+                    pinRay(king, from, pinned), enemies, moves);
+        }
+        if (checkers == BitBoardUtils.EMPTY && !capturesOnly) {
+            generateCastles(board, us, them, occupancy, moves);
+        }
+    }
+
+    // Own pieces that are the only blocker between the king and an enemy slider looking at it.
+    private static long calculatePinnedPieces(final SearchBoard board,
+                                              final Alliance us,
+                                              final Alliance them,
+                                              final int king,
+                                              final long own,
+                                              final long occupancy) {
+        final long enemies = occupancy & ~own;
+        final long enemyQueens = board.getPieceBitBoard(them, PieceType.QUEEN);
+        long snipers = (MagicBitBoards.rookAttacks(king, enemies) & (board.getPieceBitBoard(them, PieceType.ROOK) | enemyQueens)) |
+                (MagicBitBoards.bishopAttacks(king, enemies) & (board.getPieceBitBoard(them, PieceType.BISHOP) | enemyQueens));
+        long pinned = BitBoardUtils.EMPTY;
+        while (snipers != BitBoardUtils.EMPTY) {
+            final int sniper = BitBoardUtils.firstCoordinate(snipers);
+            snipers = BitBoardUtils.clearFirst(snipers);
+            final long blockers = BitBoardUtils.between(king, sniper) & occupancy;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != BitBoardUtils.EMPTY) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    private static long pinRay(final int king,
+                               final int from,
+                               final long pinned) {
+        return BitBoardUtils.isSet(pinned, from) ? BitBoardUtils.line(king, from) : ALL_TILES;
+    }
+
+    private static void generatePawnMoves(final Alliance us,
+                                          final long pawns,
+                                          final long enemies,
+                                          final long occupancy,
+                                          final long targetMask,
+                                          final MoveList moves) {
+        final long empty = ~occupancy;
+        final long singlePushes;
+        final long doublePushes;
+        final long leftCaptures;
+        final long rightCaptures;
+        final int forward;
+        final long promotionRow;
+        if (us.isWhite()) {
+            forward = -8;
+            promotionRow = EIGHTH_ROW;
+            singlePushes = (pawns >>> 8) & empty;
+            doublePushes = ((singlePushes & THIRD_ROW) >>> 8) & empty;
+            leftCaptures = ((pawns & ~FIRST_COLUMN) >>> 9) & enemies;
+            rightCaptures = ((pawns & ~EIGHTH_COLUMN) >>> 7) & enemies;
+        } else {
+            forward = 8;
+            promotionRow = FIRST_ROW;
+            singlePushes = (pawns << 8) & empty;
+            doublePushes = ((singlePushes & SIXTH_ROW) << 8) & empty;
+            leftCaptures = ((pawns & ~FIRST_COLUMN) << 7) & enemies;
+            rightCaptures = ((pawns & ~EIGHTH_COLUMN) << 9) & enemies;
+        }
+        addPawnMoves(singlePushes & targetMask, forward, promotionRow, false, moves);
+        long jumps = doublePushes & targetMask;
+        while (jumps != BitBoardUtils.EMPTY) {
+            final int to = BitBoardUtils.firstCoordinate(jumps);
+            jumps = BitBoardUtils.clearFirst(jumps);
+            moves.add(encode(to - 2 * forward, to, DOUBLE_PAWN_PUSH));
+        }
+        addPawnMoves(leftCaptures & targetMask, forward - 1, promotionRow, true, moves);
+        addPawnMoves(rightCaptures & targetMask, forward + 1, promotionRow, true, moves);
+    }
+
+    // En passant removes two pawns from one row, which can uncover the king along it, so legal
+    // generation verifies each capture by making and unmaking it in place.
+    private static void generateEnPassant(final SearchBoard board,
+                                          final Alliance us,
+                                          final long pawns,
+                                          final boolean legalOnly,
+                                          final MoveList moves) {
+        final int enPassantTarget = board.getEnPassantTarget();
+        if (enPassantTarget == SearchBoard.NO_EN_PASSANT) {
+            return;
+        }
+        final Alliance them = us.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        long capturers = BitBoardUtils.pawnAttacks(them, enPassantTarget) & pawns;
+        while (capturers != BitBoardUtils.EMPTY) {
+            final int from = BitBoardUtils.firstCoordinate(capturers);
+            capturers = BitBoardUtils.clearFirst(capturers);
+            final int move = encode(from, enPassantTarget, EN_PASSANT);
+            if (legalOnly) {
+                board.makeMove(move);
+                final boolean leavesKingAttacked = board.isSquareAttacked(board.getKingCoordinate(us), them);
+                board.unmakeMove();
+                if (leavesKingAttacked) {
+                    continue;
+                }
+            }
+            moves.add(move);
+        }
+    }
+
+    private static void addPawnMoves(final long targets,
+                                     final int offset,
+                                     final long promotionRow,
+                                     final boolean isCapture,
+                                     final MoveList moves) {
+        long remaining = targets;
+        while (remaining != BitBoardUtils.EMPTY) {
+            final int to = BitBoardUtils.firstCoordinate(remaining);
+            remaining = BitBoardUtils.clearFirst(remaining);
+            final int from = to - offset;
+            if (BitBoardUtils.isSet(promotionRow, to)) {
+                moves.add(encode(from, to, promotionFlag(PieceType.QUEEN, isCapture)));
+                moves.add(encode(from, to, promotionFlag(PieceType.ROOK, isCapture)));
+                moves.add(encode(from, to, promotionFlag(PieceType.BISHOP, isCapture)));
+                moves.add(encode(from, to, promotionFlag(PieceType.KNIGHT, isCapture)));
+            } else {
+                moves.add(encode(from, to, isCapture ? CAPTURE : QUIET));
+            }
+        }
+    }
+
+    private static void addMoves(final int from,
+                                 final long targets,
+                                 final long enemies,
+                                 final MoveList moves) {
+        long remaining = targets;
+        while (remaining != BitBoardUtils.EMPTY) {
+            final int to = BitBoardUtils.firstCoordinate(remaining);
+            remaining = BitBoardUtils.clearFirst(remaining);
+            moves.add(encode(from, to, BitBoardUtils.isSet(enemies, to) ? CAPTURE : QUIET));
+        }
+    }
+
+    private static void generateCastles(final SearchBoard board,
+                                        final Alliance us,
+                                        final Alliance them,
+                                        final long occupancy,
+                                        final MoveList moves) {
+        final int rights = board.getCastlingRights();
+        final int king = us.isWhite() ? 60 : 4;
+        final int kingSideRight = us.isWhite() ? SearchBoard.WHITE_KING_SIDE : SearchBoard.BLACK_KING_SIDE;
+        final int queenSideRight = us.isWhite() ? SearchBoard.WHITE_QUEEN_SIDE : SearchBoard.BLACK_QUEEN_SIDE;
+        if ((rights & (kingSideRight | queenSideRight)) == 0 || board.isSquareAttacked(king, them)) {
+            return;
+        }
+        if ((rights & kingSideRight) != 0 &&
+                (occupancy & (BitBoardUtils.squareMask(king + 1) | BitBoardUtils.squareMask(king + 2))) == 0 &&
+                !board.isSquareAttacked(king + 1, them) && !board.isSquareAttacked(king + 2, them)) {
+            moves.add(encode(king, king + 2, KING_CASTLE));
+        }
+        if ((rights & queenSideRight) != 0 &&
+                (occupancy & (BitBoardUtils.squareMask(king - 1) | BitBoardUtils.squareMask(king - 2) |
+                        BitBoardUtils.squareMask(king - 3))) == 0 &&
+                !board.isSquareAttacked(king - 1, them) && !board.isSquareAttacked(king - 2, them)) {
+            moves.add(encode(king, king - 2, QUEEN_CASTLE));
+        }
+    }
+
+}
@@ -2,9 +2,6 @@ package com.chess.engine.board;
 
 import com.chess.engine.board.Move;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static com.chess.engine.board.Move.*;
 
 public enum MoveUtils {
@@ -23,23 +20,4 @@ public enum MoveUtils {
 
     }
 
-    public static class Line {
-        private final List<Integer> coordinates;
-
-        public Line() {
-            this.coordinates = new ArrayList<>();
-        }
-
-        public void addCoordinate(int coordinate) {
-            this.coordinates.add(coordinate);
-        }
-
-        public List<Integer> getLineCoordinates() {
-            return this.coordinates;
-        }
-
-        public boolean isEmpty() {
-            return this.coordinates.isEmpty();
-        }
-    }
 }
\ No newline at end of file
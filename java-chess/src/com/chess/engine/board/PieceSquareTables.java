@@ -0,0 +1,86 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import static com.chess.engine.board.BitBoardUtils.NUM_PIECE_INDEXES;
+import static com.chess.engine.board.BitBoardUtils.NUM_PIECE_TYPES;
+import static com.chess.engine.board.BoardUtils.NUM_TILES;
+
+// Material plus the placement bonus from the Alliance tables, per piece index and tile, for the middle
+// game and for the endgame, counted positive for white and negative for black so that a SearchBoard can
+// keep the sums as it moves pieces. The game phase runs from MAX_PHASE with every knight, bishop, rook
+// and queen on the board down to 0 with none, and blends the two sums in between.
+public enum PieceSquareTables {
+
+    INSTANCE;
+
+    public static final int MAX_PHASE = 24;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+    private static final int[][] MIDDLE_GAME_SCORES = new int[NUM_PIECE_INDEXES][NUM_TILES];
+    private static final int[][] END_GAME_SCORES = new int[NUM_PIECE_INDEXES][NUM_TILES];
+
+    static {
+        for (int pieceIndex = 0; pieceIndex < NUM_PIECE_INDEXES; pieceIndex++) {
+            final Alliance alliance = ALLIANCES[pieceIndex / NUM_PIECE_TYPES];
+            final PieceType pieceType = PIECE_TYPES[pieceIndex % NUM_PIECE_TYPES];
+            final int sign = alliance.isWhite() ? 1 : -1;
+            for (int coordinate = 0; coordinate < NUM_TILES; coordinate++) {
+                final int placement = locationBonus(alliance, pieceType, coordinate);
+                MIDDLE_GAME_SCORES[pieceIndex][coordinate] = sign * (materialValue(pieceType) +
+                        (pieceType == PieceType.KING ? alliance.kingMiddleGameBonus(coordinate) : placement));
+                END_GAME_SCORES[pieceIndex][coordinate] = sign * (materialValue(pieceType) + placement);
+            }
+        }
+    }
+
+    public static int middleGameScore(final int pieceIndex,
+                                      final int coordinate) {
+        return MIDDLE_GAME_SCORES[pieceIndex][coordinate];
+    }
+
+    public static int endGameScore(final int pieceIndex,
+                                   final int coordinate) {
+        return END_GAME_SCORES[pieceIndex][coordinate];
+    }
+
+    public static int phaseWeight(final int pieceIndex) {
+        return PHASE_WEIGHTS[pieceIndex % NUM_PIECE_TYPES];
+    }
+
+    // Promotions can take the phase past MAX_PHASE, which still counts as the middle game.
+    public static int taper(final int middleGameScore,
+                            final int endGameScore,
+                            final int phase) {
+        final int middleGameWeight = Math.min(phase, MAX_PHASE);
+        return (middleGameScore * middleGameWeight + endGameScore * (MAX_PHASE - middleGameWeight)) / MAX_PHASE;
+    }
+
+    // The kings count no material; neither side can be without one.
+    public static int materialValue(final PieceType pieceType) {
+        return pieceType == PieceType.KING ? 0 : pieceType.getPieceValue();
+    }
+
+    private static int locationBonus(final Alliance alliance,
+                                     final PieceType pieceType,
+                                     final int coordinate) {
+        switch (pieceType) {
+            case PAWN:
+                return alliance.pawnBonus(coordinate);
+            case KNIGHT:
+                return alliance.knightBonus(coordinate);
+            case BISHOP:
+                return alliance.bishopBonus(coordinate);
+            case ROOK:
+                return alliance.rookBonus(coordinate);
+            case QUEEN:
+                return alliance.queenBonus(coordinate);
+            default:
+                return alliance.kingBonus(coordinate);
+        }
+    }
+
+}
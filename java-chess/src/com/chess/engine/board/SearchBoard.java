@@ -0,0 +1,459 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.*;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Arrays;
+
+import static com.chess.engine.board.BitBoardUtils.NUM_PIECE_INDEXES;
+import static com.chess.engine.board.BitBoardUtils.NUM_PIECE_TYPES;
+import static com.chess.engine.board.BoardUtils.NUM_TILES;
+
+// A mutable position for search. Moves are made and unmade in place against an undo stack,
+// so nothing is allocated per node. Convert to and from the immutable Board at the API boundary.
+public final class SearchBoard {
+
+    public static final int NO_PIECE = -1;
+    public static final int NO_EN_PASSANT = -1;
+    public static final int NO_PROMOTION = -1;
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int MAX_PLY = 1024;
+
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final int WHITE = Alliance.WHITE.ordinal();
+    private static final int BLACK = Alliance.BLACK.ordinal();
+    private static final int PAWN = PieceType.PAWN.ordinal();
+    private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+    private static final int BISHOP = PieceType.BISHOP.ordinal();
+    private static final int ROOK = PieceType.ROOK.ordinal();
+    private static final int QUEEN = PieceType.QUEEN.ordinal();
+    private static final int KING = PieceType.KING.ordinal();
+    private static final int[] CASTLING_MASKS = initCastlingMasks();
+
+    private final int[] mailbox;
+    private final long[] pieceBitBoards;
+    private final long[] occupancy;
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantTarget;
+    private int ply;
+    private long zobristKey;
+    // the Zobrist keys of the pawns alone
+    private long pawnKey;
+    // running PieceSquareTables sums, white positive
+    private int middleGameScore;
+    private int endGameScore;
+    private int phase;
+
+    private final int[] undoFrom;
+    private final int[] undoTo;
+    private final int[] undoMovedPiece;
+    private final int[] undoCapturedPiece;
+    private final int[] undoCastlingRights;
+    private final int[] undoEnPassantTarget;
+    private final long[] undoZobristKey;
+
+    private SearchBoard() {
+        this.mailbox = new int[NUM_TILES];
+        this.pieceBitBoards = new long[NUM_PIECE_INDEXES];
+        this.occupancy = new long[ALLIANCES.length];
+        this.undoFrom = new int[MAX_PLY];
+        this.undoTo = new int[MAX_PLY];
+        this.undoMovedPiece = new int[MAX_PLY];
+        this.undoCapturedPiece = new int[MAX_PLY];
+        this.undoCastlingRights = new int[MAX_PLY];
+        this.undoEnPassantTarget = new int[MAX_PLY];
+        this.undoZobristKey = new long[MAX_PLY];
+        Arrays.fill(this.mailbox, NO_PIECE);
+        this.enPassantTarget = NO_EN_PASSANT;
+    }
+
+    public static SearchBoard fromBoard(final Board board) {
+        return fromBoard(board, board.currentPlayer().getAlliance());
+    }
+
+    // When the given side is not the one to move on the board, the position is taken as if the
+    // other side had passed: the same pieces and castling rights, but no en passant capture.
+    public static SearchBoard fromBoard(final Board board,
+                                        final Alliance sideToMove) {
+        final SearchBoard searchBoard = new SearchBoard();
+        for (int i = 0; i < NUM_TILES; i++) {
+            final Piece piece = board.getPiece(i);
+            if (piece != null) {
+                searchBoard.putPiece(i, BitBoardUtils.pieceIndex(piece.getPieceAlliance(), piece.getPieceType()));
+            }
+        }
+        searchBoard.sideToMove = sideToMove.ordinal();
+        searchBoard.castlingRights = calculateCastlingRights(board);
+        searchBoard.zobristKey = board.getZobristKey();
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (sideToMove != board.currentPlayer().getAlliance()) {
+            searchBoard.zobristKey ^= Zobrist.sideKey();
+            if (enPassantPawn != null) {
+                searchBoard.zobristKey ^= Zobrist.enPassantKey(enPassantPawn.getPiecePosition());
+            }
+        } else if (enPassantPawn != null) {
+            searchBoard.enPassantTarget = enPassantPawn.getPiecePosition() -
+                    (enPassantPawn.getPieceAlliance().getDirection() * 8);
+        }
+        return searchBoard;
+    }
+
+    public Board toBoard() {
+        final Board.Builder builder = new Board.Builder();
+        Pawn enPassantPawn = null;
+        final int enPassantPawnCoordinate = this.enPassantTarget == NO_EN_PASSANT ? NO_EN_PASSANT :
+                this.enPassantTarget + (ALLIANCES[this.sideToMove].getOppositeDirection() * 8);
+        for (int i = 0; i < NUM_TILES; i++) {
+            if (this.mailbox[i] != NO_PIECE) {
+                final Piece piece = createPiece(i, this.mailbox[i]);
+                builder.setPiece(piece);
+                if (i == enPassantPawnCoordinate) {
+                    enPassantPawn = (Pawn) piece;
+                }
+            }
+        }
+        builder.setEnPassantPawn(enPassantPawn);
+        builder.setMoveMaker(ALLIANCES[this.sideToMove]);
+        builder.setZobristKey(this.zobristKey);
+        return builder.build();
+    }
+
+    public void makeMove(final Move move) {
+        makeMove(MoveCodec.encode(move));
+    }
+
+    public void makeMove(final int move) {
+        makeMove(MoveCodec.getFrom(move), MoveCodec.getTo(move), MoveCodec.getPromotionType(move));
+    }
+
+    // Castling is a king move of two files and en passant is a pawn move onto the en passant target;
+    // neither needs a flag. The move is assumed to be legal in this position.
+    public void makeMove(final int from,
+                         final int to,
+                         final int promotionType) {
+        final int us = this.sideToMove;
+        final int movedPiece = this.mailbox[from];
+        final int movedType = movedPiece - us * NUM_PIECE_TYPES;
+        int capturedPiece = this.mailbox[to];
+        this.undoFrom[this.ply] = from;
+        this.undoTo[this.ply] = to;
+        this.undoMovedPiece[this.ply] = movedPiece;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoEnPassantTarget[this.ply] = this.enPassantTarget;
+        this.undoZobristKey[this.ply] = this.zobristKey;
+        if (capturedPiece != NO_PIECE) {
+            removePiece(to, capturedPiece);
+        } else if (movedType == PAWN && to == this.enPassantTarget) {
+            final int capturedPawnCoordinate = enPassantCaptureCoordinate(to, us);
+            capturedPiece = this.mailbox[capturedPawnCoordinate];
+            removePiece(capturedPawnCoordinate, capturedPiece);
+        }
+        this.undoCapturedPiece[this.ply] = capturedPiece;
+        removePiece(from, movedPiece);
+        putPiece(to, promotionType == NO_PROMOTION ? movedPiece : us * NUM_PIECE_TYPES + promotionType);
+        if (movedType == KING && Math.abs(to - from) == 2) {
+            moveCastleRook(from, to, us * NUM_PIECE_TYPES + ROOK, false);
+        }
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights);
+        this.castlingRights = updateCastlingRights(this.castlingRights, from, to);
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights);
+        if (this.enPassantTarget != NO_EN_PASSANT) {
+            this.zobristKey ^= Zobrist.enPassantKey(this.enPassantTarget);
+        }
+        this.enPassantTarget = movedType == PAWN && Math.abs(to - from) == 16 ? (from + to) / 2 : NO_EN_PASSANT;
+        if (this.enPassantTarget != NO_EN_PASSANT) {
+            this.zobristKey ^= Zobrist.enPassantKey(this.enPassantTarget);
+        }
+        this.zobristKey ^= Zobrist.sideKey();
+        this.sideToMove = us ^ 1;
+        this.ply++;
+    }
+
+    public void unmakeMove() {
+        this.ply--;
+        final int us = this.sideToMove ^ 1;
+        final int from = this.undoFrom[this.ply];
+        final int to = this.undoTo[this.ply];
+        final int movedPiece = this.undoMovedPiece[this.ply];
+        final int capturedPiece = this.undoCapturedPiece[this.ply];
+        this.sideToMove = us;
+        this.castlingRights = this.undoCastlingRights[this.ply];
+        this.enPassantTarget = this.undoEnPassantTarget[this.ply];
+        removePiece(to, this.mailbox[to]);
+        putPiece(from, movedPiece);
+        final int movedType = movedPiece - us * NUM_PIECE_TYPES;
+        if (capturedPiece != NO_PIECE) {
+            if (movedType == PAWN && to == this.enPassantTarget) {
+                putPiece(enPassantCaptureCoordinate(to, us), capturedPiece);
+            } else {
+                putPiece(to, capturedPiece);
+            }
+        }
+        if (movedType == KING && Math.abs(to - from) == 2) {
+            moveCastleRook(from, to, us * NUM_PIECE_TYPES + ROOK, true);
+        }
+        this.zobristKey = this.undoZobristKey[this.ply];
+    }
+
+    // Passes the turn for null move pruning: only the side to move and the en passant target change.
+    public void makeNullMove() {
+        this.undoEnPassantTarget[this.ply] = this.enPassantTarget;
+        this.undoZobristKey[this.ply] = this.zobristKey;
+        if (this.enPassantTarget != NO_EN_PASSANT) {
+            this.zobristKey ^= Zobrist.enPassantKey(this.enPassantTarget);
+            this.enPassantTarget = NO_EN_PASSANT;
+        }
+        this.zobristKey ^= Zobrist.sideKey();
+        this.sideToMove ^= 1;
+        this.ply++;
+    }
+
+    public void unmakeNullMove() {
+        this.ply--;
+        this.sideToMove ^= 1;
+        this.enPassantTarget = this.undoEnPassantTarget[this.ply];
+        this.zobristKey = this.undoZobristKey[this.ply];
+    }
+
+    // Knights, bishops, rooks or queens: without them a side is likely to be in zugzwang.
+    public boolean hasNonPawnMaterial(final Alliance alliance) {
+        final int base = alliance.ordinal() * NUM_PIECE_TYPES;
+        return (this.pieceBitBoards[base + KNIGHT] | this.pieceBitBoards[base + BISHOP] |
+                this.pieceBitBoards[base + ROOK] | this.pieceBitBoards[base + QUEEN]) != BitBoardUtils.EMPTY;
+    }
+
+    public boolean isSquareAttacked(final int coordinate,
+                                    final Alliance attacker) {
+        final int by = attacker.ordinal();
+        final int base = by * NUM_PIECE_TYPES;
+        final long allOccupancy = getOccupancy();
+        final long rooksAndQueens = this.pieceBitBoards[base + ROOK] | this.pieceBitBoards[base + QUEEN];
+        final long bishopsAndQueens = this.pieceBitBoards[base + BISHOP] | this.pieceBitBoards[base + QUEEN];
+        return (BitBoardUtils.pawnAttacks(ALLIANCES[by ^ 1], coordinate) & this.pieceBitBoards[base + PAWN]) != 0 ||
+                (BitBoardUtils.knightAttacks(coordinate) & this.pieceBitBoards[base + KNIGHT]) != 0 ||
+                (BitBoardUtils.kingAttacks(coordinate) & this.pieceBitBoards[base + KING]) != 0 ||
+                (MagicBitBoards.bishopAttacks(coordinate, allOccupancy) & bishopsAndQueens) != 0 ||
+                (MagicBitBoards.rookAttacks(coordinate, allOccupancy) & rooksAndQueens) != 0;
+    }
+
+    // Every piece of the attacker that attacks the tile, with sliders blocked by the given occupancy.
+    public long getAttackers(final int coordinate,
+                             final Alliance attacker,
+                             final long occupancy) {
+        final int base = attacker.ordinal() * NUM_PIECE_TYPES;
+        final long rooksAndQueens = this.pieceBitBoards[base + ROOK] | this.pieceBitBoards[base + QUEEN];
+        final long bishopsAndQueens = this.pieceBitBoards[base + BISHOP] | this.pieceBitBoards[base + QUEEN];
+        return (BitBoardUtils.pawnAttacks(ALLIANCES[attacker.ordinal() ^ 1], coordinate) & this.pieceBitBoards[base + PAWN]) |
+                (BitBoardUtils.knightAttacks(coordinate) & this.pieceBitBoards[base + KNIGHT]) |
+                (BitBoardUtils.kingAttacks(coordinate) & this.pieceBitBoards[base + KING]) |
+                (MagicBitBoards.bishopAttacks(coordinate, occupancy) & bishopsAndQueens) |
+                (MagicBitBoards.rookAttacks(coordinate, occupancy) & rooksAndQueens);
+    }
+
+    public boolean isInCheck() {
+        final Alliance mover = ALLIANCES[this.sideToMove];
+        return isSquareAttacked(getKingCoordinate(mover), ALLIANCES[this.sideToMove ^ 1]);
+    }
+
+    public int getKingCoordinate(final Alliance alliance) {
+        return BitBoardUtils.firstCoordinate(this.pieceBitBoards[alliance.ordinal() * NUM_PIECE_TYPES + KING]);
+    }
+
+    public int getPieceIndex(final int coordinate) {
+        return this.mailbox[coordinate];
+    }
+
+    public long getPieceBitBoard(final Alliance alliance,
+                                 final PieceType pieceType) {
+        return this.pieceBitBoards[BitBoardUtils.pieceIndex(alliance, pieceType)];
+    }
+
+    public long getOccupancy(final Alliance alliance) {
+        return this.occupancy[alliance.ordinal()];
+    }
+
+    public long getOccupancy() {
+        return this.occupancy[WHITE] | this.occupancy[BLACK];
+    }
+
+    public Alliance getSideToMove() {
+        return ALLIANCES[this.sideToMove];
+    }
+
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    public int getEnPassantTarget() {
+        return this.enPassantTarget;
+    }
+
+    public int getPly() {
+        return this.ply;
+    }
+
+    public int getMiddleGameScore() {
+        return this.middleGameScore;
+    }
+
+    public int getEndGameScore() {
+        return this.endGameScore;
+    }
+
+    public int getPhase() {
+        return this.phase;
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < NUM_TILES; i++) {
+            final int piece = this.mailbox[i];
+            final String tileText = piece == NO_PIECE ? "-" : piece >= NUM_PIECE_TYPES ?
+                    PIECE_TYPES[piece - NUM_PIECE_TYPES].toString().toLowerCase() : PIECE_TYPES[piece].toString();
+            builder.append(String.format("%3s", tileText));
+            if ((i + 1) % 8 == 0) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+
+    static int updateCastlingRights(final int castlingRights,
+                                    final int from,
+                                    final int to) {
+        return castlingRights & CASTLING_MASKS[from] & CASTLING_MASKS[to];
+    }
+
+    public static int calculateCastlingRights(final Board board) {
+        return castlingRights(board, Alliance.WHITE, 60, 63, 56, WHITE_KING_SIDE, WHITE_QUEEN_SIDE) |
+                castlingRights(board, Alliance.BLACK, 4, 7, 0, BLACK_KING_SIDE, BLACK_QUEEN_SIDE);
+    }
+
+    private static int castlingRights(final Board board,
+                                      final Alliance alliance,
+                                      final int kingCoordinate,
+                                      final int kingSideRookCoordinate,
+                                      final int queenSideRookCoordinate,
+                                      final int kingSideRight,
+                                      final int queenSideRight) {
+        final Piece piece = board.getPiece(kingCoordinate);
+        if (!(piece instanceof King) || piece.getPieceAlliance() != alliance || !piece.isFirstMove()) {
+            return 0;
+        }
+        final King king = (King) piece;
+        int rights = 0;
+        if (king.isKingSideCastleCapable() && isUnmovedRook(board.getPiece(kingSideRookCoordinate), alliance)) {
+            rights |= kingSideRight;
+        }
+        if (king.isQueenSideCastleCapable() && isUnmovedRook(board.getPiece(queenSideRookCoordinate), alliance)) {
+            rights |= queenSideRight;
+        }
+        return rights;
+    }
+
+    private static boolean isUnmovedRook(final Piece piece,
+                                         final Alliance alliance) {
+        return piece != null && piece.getPieceType() == PieceType.ROOK &&
+                piece.getPieceAlliance() == alliance && piece.isFirstMove();
+    }
+
+    private Piece createPiece(final int coordinate,
+                              final int pieceIndex) {
+        final Alliance alliance = ALLIANCES[pieceIndex / NUM_PIECE_TYPES];
+        final int kingSideRight = alliance.isWhite() ? WHITE_KING_SIDE : BLACK_KING_SIDE;
+        final int queenSideRight = alliance.isWhite() ? WHITE_QUEEN_SIDE : BLACK_QUEEN_SIDE;
+        switch (PIECE_TYPES[pieceIndex % NUM_PIECE_TYPES]) {
+            case PAWN:
+                return new Pawn(alliance, coordinate, alliance.isWhite() ?
+                        BoardUtils.INSTANCE.SEVENTH_ROW.get(coordinate) : BoardUtils.INSTANCE.SECOND_ROW.get(coordinate));
+            case KNIGHT:
+                return new Knight(alliance, coordinate, false);
+            case BISHOP:
+                return new Bishop(alliance, coordinate, false);
+            case ROOK:
+                final boolean unmovedRook = (coordinate == (alliance.isWhite() ? 63 : 7) &&
+                        (this.castlingRights & kingSideRight) != 0) ||
+                        (coordinate == (alliance.isWhite() ? 56 : 0) && (this.castlingRights & queenSideRight) != 0);
+                return new Rook(alliance, coordinate, unmovedRook);
+            case QUEEN:
+                return new Queen(alliance, coordinate, false);
+            default:
+                final boolean kingSide = (this.castlingRights & kingSideRight) != 0;
+                final boolean queenSide = (this.castlingRights & queenSideRight) != 0;
+                return new King(alliance, coordinate, kingSide || queenSide, false, kingSide, queenSide);
+        }
+    }
+
+    private void moveCastleRook(final int kingFrom,
+                                final int kingTo,
+                                final int rook,
+                                final boolean undo) {
+        final int rookStart = kingTo > kingFrom ? kingFrom + 3 : kingFrom - 4;
+        final int rookDestination = kingTo > kingFrom ? kingFrom + 1 : kingFrom - 1;
+        removePiece(undo ? rookDestination : rookStart, rook);
+        putPiece(undo ? rookStart : rookDestination, rook);
+    }
+
+    private static int enPassantCaptureCoordinate(final int enPassantTarget,
+                                                  final int mover) {
+        return enPassantTarget + (ALLIANCES[mover].getOppositeDirection() * 8);
+    }
+
+    private void putPiece(final int coordinate,
+                          final int pieceIndex) {
+        final long mask = BitBoardUtils.squareMask(coordinate);
+        this.mailbox[coordinate] = pieceIndex;
+        this.pieceBitBoards[pieceIndex] |= mask;
+        this.occupancy[pieceIndex / NUM_PIECE_TYPES] |= mask;
+        this.zobristKey ^= Zobrist.pieceKey(pieceIndex, coordinate);
+        if (pieceIndex % NUM_PIECE_TYPES == PAWN) {
+            this.pawnKey ^= Zobrist.pieceKey(pieceIndex, coordinate);
+        }
+        this.middleGameScore += PieceSquareTables.middleGameScore(pieceIndex, coordinate);
+        this.endGameScore += PieceSquareTables.endGameScore(pieceIndex, coordinate);
+        this.phase += PieceSquareTables.phaseWeight(pieceIndex);
+    }
+
+    private void removePiece(final int coordinate,
+                             final int pieceIndex) {
+        final long mask = BitBoardUtils.squareMask(coordinate);
+        this.mailbox[coordinate] = NO_PIECE;
+        this.pieceBitBoards[pieceIndex] &= ~mask;
+        this.occupancy[pieceIndex / NUM_PIECE_TYPES] &= ~mask;
+        this.zobristKey ^= Zobrist.pieceKey(pieceIndex, coordinate);
+        if (pieceIndex % NUM_PIECE_TYPES == PAWN) {
+            this.pawnKey ^= Zobrist.pieceKey(pieceIndex, coordinate);
+        }
+        this.middleGameScore -= PieceSquareTables.middleGameScore(pieceIndex, coordinate);
+        this.endGameScore -= PieceSquareTables.endGameScore(pieceIndex, coordinate);
+        this.phase -= PieceSquareTables.phaseWeight(pieceIndex);
+    }
+
+    private static int[] initCastlingMasks() {
+        final int[] masks = new int[NUM_TILES];
+        Arrays.fill(masks, WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        masks[60] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        masks[63] &= ~WHITE_KING_SIDE;
+        masks[56] &= ~WHITE_QUEEN_SIDE;
+        masks[4] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        masks[7] &= ~BLACK_KING_SIDE;
+        masks[0] &= ~BLACK_QUEEN_SIDE;
+        return masks;
+    }
+
+}
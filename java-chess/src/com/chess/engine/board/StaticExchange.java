@@ -0,0 +1,97 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import static com.chess.engine.board.BitBoardUtils.NUM_PIECE_TYPES;
+
+// Static exchange evaluation: the material the side to move wins or loses when a capture on a tile
+// is answered by every recapture in turn, least valuable attacker first. Pieces lined up behind an
+// attacker join in once it has moved (x-rays), and either side may stop capturing when that is
+// better for it. Counting stops once the sign of the result is settled, so a won or lost exchange may
+// be reported for less than its full amount. Pins and checks are not considered.
+public enum StaticExchange {
+
+    INSTANCE;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final int[] PIECE_VALUES = initPieceValues();
+    // no more captures can follow on one tile than there are pieces on the board
+    public static final int MAX_EXCHANGES = 32;
+
+    // The gain array, of MAX_EXCHANGES entries, is scratch space the caller keeps for every evaluation,
+    // so that the search allocates nothing per move.
+    public static int evaluate(final SearchBoard board,
+                               final int move,
+                               final int[] gain) {
+        if (MoveCodec.isCastle(move)) {
+            return 0;
+        }
+        final int from = MoveCodec.getFrom(move);
+        final int to = MoveCodec.getTo(move);
+        final Alliance us = board.getSideToMove();
+        gain[0] = 0;
+        long occupancy = board.getOccupancy() ^ BitBoardUtils.squareMask(from);
+        int onTile = PIECE_VALUES[board.getPieceIndex(from) % NUM_PIECE_TYPES];
+        if (MoveCodec.getFlag(move) == MoveCodec.EN_PASSANT) {
+            gain[0] = PieceType.PAWN.getPieceValue();
+            occupancy ^= BitBoardUtils.squareMask(to + (us.isWhite() ? 8 : -8));
+        } else if (MoveCodec.isCapture(move)) {
+            gain[0] = PIECE_VALUES[board.getPieceIndex(to) % NUM_PIECE_TYPES];
+        }
+        if (MoveCodec.isPromotion(move)) {
+            onTile = PIECE_VALUES[MoveCodec.getPromotionType(move)];
+            gain[0] += onTile - PieceType.PAWN.getPieceValue();
+        }
+        final long diagonalSliders = board.getPieceBitBoard(Alliance.WHITE, PieceType.BISHOP) |
+                board.getPieceBitBoard(Alliance.WHITE, PieceType.QUEEN) |
+                board.getPieceBitBoard(Alliance.BLACK, PieceType.BISHOP) |
+                board.getPieceBitBoard(Alliance.BLACK, PieceType.QUEEN);
+        final long orthogonalSliders = board.getPieceBitBoard(Alliance.WHITE, PieceType.ROOK) |
+                board.getPieceBitBoard(Alliance.WHITE, PieceType.QUEEN) |
+                board.getPieceBitBoard(Alliance.BLACK, PieceType.ROOK) |
+                board.getPieceBitBoard(Alliance.BLACK, PieceType.QUEEN);
+        long attackers = (board.getAttackers(to, Alliance.WHITE, occupancy) |
+                board.getAttackers(to, Alliance.BLACK, occupancy)) & occupancy;
+        Alliance side = us.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        int depth = 0;
+        while (depth < MAX_EXCHANGES - 1) {
+            final long sideAttackers = attackers & board.getOccupancy(side);
+            if (sideAttackers == BitBoardUtils.EMPTY) {
+                break;
+            }
+            int pieceType = 0;
+            long candidates = sideAttackers & board.getPieceBitBoard(side, PIECE_TYPES[pieceType]);
+            while (candidates == BitBoardUtils.EMPTY) {
+                candidates = sideAttackers & board.getPieceBitBoard(side, PIECE_TYPES[++pieceType]);
+            }
+            // the previous capture already wins whatever follows, and this one would lose whatever follows;
+            // that settles the sign of the exchange, which is all the search asks of it
+            if (Math.max(-gain[depth], onTile - gain[depth]) < 0) {
+                break;
+            }
+            depth++;
+            gain[depth] = onTile - gain[depth - 1];
+            onTile = PIECE_VALUES[pieceType];
+            occupancy ^= candidates & -candidates;
+            attackers |= (MagicBitBoards.bishopAttacks(to, occupancy) & diagonalSliders) |
+                    (MagicBitBoards.rookAttacks(to, occupancy) & orthogonalSliders);
+            attackers &= occupancy;
+            side = side.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        }
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    private static int[] initPieceValues() {
+        final int[] values = new int[PIECE_TYPES.length];
+        for (final PieceType pieceType : PIECE_TYPES) {
+            values[pieceType.ordinal()] = pieceType.getPieceValue();
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import static com.chess.engine.board.BitBoardUtils.NUM_PIECE_INDEXES;
+import static com.chess.engine.board.BoardUtils.NUM_TILES;
+import static com.chess.engine.board.BoardUtils.NUM_TILES_PER_ROW;
+
+// 64-bit Zobrist position keys. A key is the XOR of one random number per piece on its tile, one for
+// black to move, one per castling rights combination and one for the file of the en passant pawn.
+public enum Zobrist {
+
+    INSTANCE;
+
+    private static final long SEED = 0x4A6F6272697374L;
+    private static final long[][] PIECE_KEYS = new long[NUM_PIECE_INDEXES][NUM_TILES];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[NUM_TILES_PER_ROW];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        final long[] state = {SEED};
+        for (final long[] pieceKeys : PIECE_KEYS) {
+            for (int i = 0; i < NUM_TILES; i++) {
+                pieceKeys[i] = nextRandom(state);
+            }
+        }
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = nextRandom(state);
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = nextRandom(state);
+        }
+        BLACK_TO_MOVE_KEY = nextRandom(state);
+    }
+
+    public static long pieceKey(final int pieceIndex,
+                                final int coordinate) {
+        return PIECE_KEYS[pieceIndex][coordinate];
+    }
+
+    public static long pieceKey(final Piece piece) {
+        return pieceKey(piece, piece.getPiecePosition());
+    }
+
+    public static long pieceKey(final Piece piece,
+                                final int coordinate) {
+        return PIECE_KEYS[BitBoardUtils.pieceIndex(piece.getPieceAlliance(), piece.getPieceType())][coordinate];
+    }
+
+    public static long castlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    // Keyed by the file of the en passant target, which is also the file of the pawn that jumped.
+    public static long enPassantKey(final int coordinate) {
+        return EN_PASSANT_KEYS[coordinate % NUM_TILES_PER_ROW];
+    }
+
+    public static long sideKey() {
+        return BLACK_TO_MOVE_KEY;
+    }
+
+    public static long calculateKey(final Board board) {
+        long key = castlingKey(SearchBoard.calculateCastlingRights(board));
+        for (int i = 0; i < NUM_TILES; i++) {
+            final Piece piece = board.getPiece(i);
+            if (piece != null) {
+                key ^= pieceKey(piece, i);
+            }
+        }
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null) {
+            key ^= enPassantKey(enPassantPawn.getPiecePosition());
+        }
+        if (board.currentPlayer().getAlliance() == Alliance.BLACK) {
+            key ^= sideKey();
+        }
+        return key;
+    }
+
+    private static long nextRandom(final long[] state) {
+        state[0] += 0x9E3779B97F4A7C15L;
+        long z = state[0];
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
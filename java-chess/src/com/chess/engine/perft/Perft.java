@@ -0,0 +1,198 @@
+package com.chess.engine.perft;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MoveCodec;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
+import com.chess.pgn.FenUtilities;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Counts the leaves of the legal move tree to a fixed depth, split by root move. Used to check
+// the move generator against published counts and to measure its raw speed.
+public final class Perft {
+
+    private final boolean parallel;
+    private final int hashSizeInMegabytes;
+
+    private Perft(final Builder builder) {
+        this.parallel = builder.parallel;
+        this.hashSizeInMegabytes = builder.hashSizeInMegabytes;
+    }
+
+    public PerftResult run(final Board board,
+                           final int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("perft depth must be at least 1");
+        }
+        final PerftHashTable hashTable = this.hashSizeInMegabytes > 0 ? new PerftHashTable(this.hashSizeInMegabytes) : null;
+        final SearchBoard searchBoard = SearchBoard.fromBoard(board);
+        final MoveList rootMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(searchBoard, rootMoves);
+        final long start = System.nanoTime();
+        final long[] counts = new long[rootMoves.size()];
+        if (this.parallel) {
+            final List<PerftTask> tasks = new ArrayList<>();
+            for (int i = 0; i < rootMoves.size(); i++) {
+                tasks.add(new PerftTask(board, rootMoves.get(i), depth - 1, hashTable));
+            }
+            ForkJoinPool.commonPool().invoke(new RootTask(tasks));
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = tasks.get(i).join();
+            }
+        } else {
+            final MoveList[] moveLists = createMoveLists(depth);
+            for (int i = 0; i < rootMoves.size(); i++) {
+                searchBoard.makeMove(rootMoves.get(i));
+                counts[i] = depth == 1 ? 1 : perft(searchBoard, depth - 1, moveLists, hashTable);
+                searchBoard.unmakeMove();
+            }
+        }
+        final long elapsedNanos = System.nanoTime() - start;
+        final ImmutableMap.Builder<String, Long> divide = ImmutableMap.builder();
+        long nodes = 0;
+        for (int i = 0; i < counts.length; i++) {
+            divide.put(MoveCodec.toString(rootMoves.get(i)), counts[i]);
+            nodes += counts[i];
+        }
+        return new PerftResult(depth, nodes, elapsedNanos, divide.build());
+    }
+
+    // Leaves below the board to the given depth; the last ply is counted from the move list size.
+    private static long perft(final SearchBoard board,
+                              final int depth,
+                              final MoveList[] moveLists,
+                              final PerftHashTable hashTable) {
+        if (hashTable != null) {
+            final long stored = hashTable.probe(board.getZobristKey(), depth);
+            if (stored >= 0) {
+                return stored;
+            }
+        }
+        final MoveList moves = moveLists[depth];
+        MoveGenerator.generateLegalMoves(board, moves);
+        long nodes;
+        if (depth == 1) {
+            nodes = moves.size();
+        } else {
+            nodes = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeMove(moves.get(i));
+                nodes += perft(board, depth - 1, moveLists, hashTable);
+                board.unmakeMove();
+            }
+        }
+        if (hashTable != null) {
+            hashTable.store(board.getZobristKey(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    private static MoveList[] createMoveLists(final int depth) {
+        final MoveList[] moveLists = new MoveList[depth + 1];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return moveLists;
+    }
+
+    // usage: Perft <depth> [fen] [-parallel] [-hash <megabytes>]
+    public static void main(final String[] args) {
+        if (args.length < 1) {
+            System.err.println("usage: Perft <depth> [fen] [-parallel] [-hash <megabytes>]");
+            System.exit(1);
+        }
+        final int depth = Integer.parseInt(args[0]);
+        final Builder builder = new Builder();
+        final StringBuilder fen = new StringBuilder();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("-parallel")) {
+                builder.setParallel(true);
+            } else if (args[i].equals("-hash") && i + 1 < args.length) {
+                builder.setHashSizeInMegabytes(Integer.parseInt(args[++i]));
+            } else {
+                fen.append(args[i]).append(' ');
+            }
+        }
+        final Board board = fen.length() == 0 ? Board.createStandardBoard() : FenUtilities.createGameFromFEN(fen.toString());
+        System.out.print(builder.build().run(board, depth));
+    }
+
+    public static class Builder {
+
+        boolean parallel;
+        int hashSizeInMegabytes;
+
+        public Builder setParallel(final boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        // 0 disables the hash table.
+        public Builder setHashSizeInMegabytes(final int hashSizeInMegabytes) {
+            this.hashSizeInMegabytes = hashSizeInMegabytes;
+            return this;
+        }
+
+        public Perft build() {
+            return new Perft(this);
+        }
+
+    }
+
+    // Each root move is searched on its own SearchBoard, so the only shared state is the hash table.
+    private static final class PerftTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int rootMove;
+        private final int depth;
+        private final PerftHashTable hashTable;
+
+        PerftTask(final Board board,
+                  final int rootMove,
+                  final int depth,
+                  final PerftHashTable hashTable) {
+            this.board = board;
+            this.rootMove = rootMove;
+            this.depth = depth;
+            this.hashTable = hashTable;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.depth == 0) {
+                return 1L;
+            }
+            final SearchBoard searchBoard = SearchBoard.fromBoard(this.board);
+            searchBoard.makeMove(this.rootMove);
+            return perft(searchBoard, this.depth, createMoveLists(this.depth), this.hashTable);
+        }
+
+    }
+
+    private static final class RootTask extends RecursiveTask<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<PerftTask> tasks;
+
+        RootTask(final List<PerftTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected Void compute() {
+            invokeAll(this.tasks);
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.chess.engine.perft;
+
+// Subtree node counts keyed by Zobrist key and remaining depth. Each slot holds the count and the
+// key XOR the count, so a slot torn by a racing writer fails verification instead of returning a
+// wrong count; the table can therefore be shared by fork-join workers without locking.
+final class PerftHashTable {
+
+    private static final int BYTES_PER_ENTRY = 16;
+
+    private final long[] checks;
+    private final long[] counts;
+    private final int mask;
+
+    PerftHashTable(final int sizeInMegabytes) {
+        final long entries = Long.highestOneBit(Math.max(1L, (long) sizeInMegabytes * 1024 * 1024 / BYTES_PER_ENTRY));
+        final int size = (int) Math.min(entries, 1 << 30);
+        this.checks = new long[size];
+        this.counts = new long[size];
+        this.mask = size - 1;
+    }
+
+    // -1 when the subtree is not stored.
+    long probe(final long zobristKey,
+               final int depth) {
+        final long key = entryKey(zobristKey, depth);
+        final int index = (int) key & this.mask;
+        final long count = this.counts[index];
+        return count != 0 && (this.checks[index] ^ count) == key ? count : -1;
+    }
+
+    void store(final long zobristKey,
+               final int depth,
+               final long count) {
+        final long key = entryKey(zobristKey, depth);
+        final int index = (int) key & this.mask;
+        this.counts[index] = count;
+        this.checks[index] = key ^ count;
+    }
+
+    private static long entryKey(final long zobristKey,
+                                 final int depth) {
+        return zobristKey ^ (depth * 0x9E3779B97F4A7C15L);
+    }
+
+}
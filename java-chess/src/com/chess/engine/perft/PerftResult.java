@@ -0,0 +1,58 @@
+package com.chess.engine.perft;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+
+public final class PerftResult {
+
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final ImmutableMap<String, Long> divide;
+
+    PerftResult(final int depth,
+                final long nodes,
+                final long elapsedNanos,
+                final ImmutableMap<String, Long> divide) {
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.divide = divide;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    public long getNodesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.nodes * 1_000_000_000L / this.elapsedNanos;
+    }
+
+    // Leaf count below each root move, keyed by the move in coordinate notation (e2e4, e7e8q).
+    public Map<String, Long> getDivide() {
+        return this.divide;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (final Map.Entry<String, Long> entry : this.divide.entrySet()) {
+            builder.append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+        }
+        return builder.append("\nmoves: ").append(this.divide.size())
+                .append("\nnodes: ").append(this.nodes)
+                .append("\ntime: ").append(this.elapsedNanos / 1_000_000).append(" ms")
+                .append("\nnps: ").append(getNodesPerSecond())
+                .append("\n").toString();
+    }
+
+}
@@ -13,10 +13,6 @@ import static com.chess.engine.board.Move.*;
 
 public final class Bishop extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATES = {-9, -7, 7, 9};
-    private final static Map<Integer, MoveUtils.Line[]> PRECOMPUTED_CANDIDATES = computeCandidates();
-
-
     public Bishop(final Alliance alliance,
                   final int piecePosition) {
         super(PieceType.BISHOP, piecePosition, alliance, true);
@@ -28,51 +24,20 @@ public final class Bishop extends Piece {
         super(PieceType.BISHOP, piecePosition, alliance, isFirstMove);
     }
 
-    private static Map<Integer, MoveUtils.Line[]> computeCandidates() {
-        Map<Integer, MoveUtils.Line[]> candidates = new HashMap<>();
-        for (int position = 0; position < BoardUtils.NUM_TILES; position++) {
-            List<MoveUtils.Line> lines = new ArrayList<>();
-            for (int offset : CANDIDATE_MOVE_COORDINATES) {
-                int destination = position;
-                MoveUtils.Line line = new MoveUtils.Line();
-                while (BoardUtils.isValidTileCoordinate(destination)) {
-                    if (isFirstColumnExclusion(destination, offset) ||
-                            isEighthColumnExclusion(destination, offset)) {
-                        break;
-                    }
-                    destination += offset;
-                    if (BoardUtils.isValidTileCoordinate(destination)) {
-                        line.addCoordinate(destination);
-                    }
-                }
-                if (!line.isEmpty()) {
-                    lines.add(line);
-                }
-            }
-            if (!lines.isEmpty()) {
-                candidates.put(position, lines.toArray(new MoveUtils.Line[0]));
-            }
-        }
-        return Collections.unmodifiableMap(candidates);
-    }
-
-
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for (final MoveUtils.Line line : PRECOMPUTED_CANDIDATES.get(this.piecePosition)) {
-            for (final int candidateDestinationCoordinate : line.getLineCoordinates()) {
-                final Piece pieceAtDestination = board.getPiece(candidateDestinationCoordinate);
-                if (pieceAtDestination == null) {
-                    legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
-                } else {
-                    final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                    if (this.pieceAlliance != pieceAlliance) {
-                        legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
-                                pieceAtDestination));
-                    }
-                    break;
-                }
+        long candidates = MagicBitBoards.bishopAttacks(this.piecePosition, board.getOccupancy()) &
+                ~board.getOccupancy(this.pieceAlliance);
+        while (candidates != BitBoardUtils.EMPTY) {
+            final int candidateDestinationCoordinate = BitBoardUtils.firstCoordinate(candidates);
+            candidates = BitBoardUtils.clearFirst(candidates);
+            final Piece pieceAtDestination = board.getPiece(candidateDestinationCoordinate);
+            if (pieceAtDestination == null) {
+                legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
+            } else {
+                legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
+                        pieceAtDestination));
             }
         }
         return Collections.unmodifiableList(legalMoves);
@@ -93,16 +58,4 @@ public final class Bishop extends Piece {
         return this.pieceType.toString();
     }
 
-    private static boolean isFirstColumnExclusion(final int position,
-                                                  final int offset) {
-        return (BoardUtils.INSTANCE.FIRST_COLUMN.get(position) &&
-                ((offset == -9) || (offset == 7)));
-    }
-
-    private static boolean isEighthColumnExclusion(final int position,
-                                                   final int offset) {
-        return BoardUtils.INSTANCE.EIGHTH_COLUMN.get(position) &&
-                ((offset == -7) || (offset == 9));
-    }
-
-}
+}
\ No newline at end of file
@@ -2,7 +2,7 @@ package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.MajorMove;
 import com.chess.engine.board.Move.MajorAttackMove;
@@ -13,10 +13,6 @@ import java.util.*;
 
 public final class King extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATES = { -9, -8, -7, -1, 1, 7, 8, 9 };
-
-    private final static Map<Integer, int[]> PRECOMPUTED_CANDIDATES = computeCandidates();
-
     private final boolean isCastled;
     private final boolean kingSideCastleCapable;
     private final boolean queenSideCastleCapable;
@@ -43,29 +39,6 @@ public final class King extends Piece {
         this.queenSideCastleCapable = queenSideCastleCapable;
     }
 
-    private static Map<Integer, int[]> computeCandidates() {
-        final Map<Integer, int[]> candidates = new HashMap<>();
-        for (int position = 0; position < BoardUtils.NUM_TILES; position++) {
-            int[] legalOffsets = new int[CANDIDATE_MOVE_COORDINATES.length];
-            int numLegalOffsets = 0;
-            for (int offset : CANDIDATE_MOVE_COORDINATES) {
-                if (isFirstColumnExclusion(position, offset) ||
-                        isEighthColumnExclusion(position, offset)) {
-                    continue;
-                }
-                int destination = position + offset;
-                if (BoardUtils.isValidTileCoordinate(destination)) {
-                    legalOffsets[numLegalOffsets++] = offset;
-                }
-            }
-            if (numLegalOffsets > 0) {
-                candidates.put(position, Arrays.copyOf(legalOffsets, numLegalOffsets));
-            }
-        }
-        return Collections.unmodifiableMap(candidates);
-    }
-
-
     public boolean isCastled() {
         return this.isCastled;
     }
@@ -81,17 +54,16 @@ public final class King extends Piece {
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for (final int currentCandidateOffset : PRECOMPUTED_CANDIDATES.get(this.piecePosition)) {
-            final int candidateDestinationCoordinate = this.piecePosition + currentCandidateOffset;
+        long candidates = BitBoardUtils.kingAttacks(this.piecePosition) & ~board.getOccupancy(this.pieceAlliance);
+        while (candidates != BitBoardUtils.EMPTY) {
+            final int candidateDestinationCoordinate = BitBoardUtils.firstCoordinate(candidates);
+            candidates = BitBoardUtils.clearFirst(candidates);
             final Piece pieceAtDestination = board.getPiece(candidateDestinationCoordinate);
             if (pieceAtDestination == null) {
                 legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
             } else {
-                final Alliance pieceAtDestinationAllegiance = pieceAtDestination.getPieceAlliance();
-                if (this.pieceAlliance != pieceAtDestinationAllegiance) {
-                    legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
-                            pieceAtDestination));
-                }
+                legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
+                        pieceAtDestination));
             }
         }
         return Collections.unmodifiableList(legalMoves);
@@ -131,18 +103,4 @@ public final class King extends Piece {
     public int hashCode() {
         return (31 * super.hashCode()) + (isCastled ? 1 : 0);
     }
-
-    private static boolean isFirstColumnExclusion(final int currentCandidate,
-                                                  final int candidateDestinationCoordinate) {
-        return BoardUtils.INSTANCE.FIRST_COLUMN.get(currentCandidate)
-                && ((candidateDestinationCoordinate == -9) || (candidateDestinationCoordinate == -1) ||
-                (candidateDestinationCoordinate == 7));
-    }
-
-    private static boolean isEighthColumnExclusion(final int currentCandidate,
-                                                   final int candidateDestinationCoordinate) {
-        return BoardUtils.INSTANCE.EIGHTH_COLUMN.get(currentCandidate)
-                && ((candidateDestinationCoordinate == -7) || (candidateDestinationCoordinate == 1) ||
-                (candidateDestinationCoordinate == 9));
-    }
 }
\ No newline at end of file
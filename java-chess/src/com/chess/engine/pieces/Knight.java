@@ -2,7 +2,7 @@ package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.MajorMove;
 import com.chess.engine.board.Move.MajorAttackMove;
@@ -14,9 +14,6 @@ import java.util.*;
 // Author: Sampriyo Guin
 public class Knight extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATES = { -17, -15, -10, -6, 6, 10, 15, 17 };
-    private final static Map<Integer, int[]> PRECOMPUTED_CANDIDATES = computeCandidates();
-
     public Knight(final Alliance alliance,
                   final int piecePosition) {
         super(PieceType.KNIGHT, piecePosition, alliance, true);
@@ -28,56 +25,29 @@ public class Knight extends Piece {
         super(PieceType.KNIGHT, piecePosition, alliance, isFirstMove);
     }
 
-    private static Map<Integer, int[]> computeCandidates() {
-        final Map<Integer, int[]> candidates = new HashMap<>();
-        for (int position = 0; position < BoardUtils.NUM_TILES; position++) {
-            final int[] legalOffsets = new int[CANDIDATE_MOVE_COORDINATES.length];
-            int numLegalMoves = 0;
-            for (final int offset : CANDIDATE_MOVE_COORDINATES) {
-                if(isFirstColumnExclusion(position, offset) ||
-                        isSecondColumnExclusion(position, offset) ||
-                        isSeventhColumnExclusion(position, offset) ||
-                        isEighthColumnExclusion(position, offset)) {
-                    continue;
-                }
-                final int destination = position + offset;
-                if (BoardUtils.isValidTileCoordinate(destination)) {
-                    legalOffsets[numLegalMoves++] = destination;
-                }
-            }
-            candidates.put(position, Arrays.copyOf(legalOffsets, numLegalMoves));
-        }
-        return Collections.unmodifiableMap(candidates);
-    }
-
     @Override
     public int locationBonus() {
-        return 0;
+        return this.pieceAlliance.knightBonus(this.piecePosition);
     }
 
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for (final int candidateDestinationCoordinate : PRECOMPUTED_CANDIDATES.get(this.piecePosition)) {
+        long candidates = BitBoardUtils.knightAttacks(this.piecePosition) & ~board.getOccupancy(this.pieceAlliance);
+        while (candidates != BitBoardUtils.EMPTY) {
+            final int candidateDestinationCoordinate = BitBoardUtils.firstCoordinate(candidates);
+            candidates = BitBoardUtils.clearFirst(candidates);
             final Piece pieceAtDestination = board.getPiece(candidateDestinationCoordinate);
             if (pieceAtDestination == null) {
                 legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
             } else {
-                final Alliance pieceAtDestinationAllegiance = pieceAtDestination.getPieceAlliance();
-                if (this.pieceAlliance != pieceAtDestinationAllegiance) {
-                    legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
-                            pieceAtDestination));
-                }
+                legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
+                        pieceAtDestination));
             }
         }
         return Collections.unmodifiableList(legalMoves);
     }
 
-    /*@Override
-    public int locationBonus() {
-        return this.pieceAlliance.knightBonus(this.piecePosition);
-    }*/
-
     @Override
     public Knight movePiece(final Move move) {
         return PieceUtils.INSTANCE.getMovedKnight(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate());
@@ -88,26 +58,4 @@ public class Knight extends Piece {
         return this.pieceType.toString();
     }
 
-    private static boolean isFirstColumnExclusion(final int currentPosition,
-                                                  final int candidateOffset) {
-        return BoardUtils.INSTANCE.FIRST_COLUMN.get(currentPosition) && ((candidateOffset == -17) ||
-                (candidateOffset == -10) || (candidateOffset == 6) || (candidateOffset == 15));
-    }
-
-    private static boolean isSecondColumnExclusion(final int currentPosition,
-                                                   final int candidateOffset) {
-        return BoardUtils.INSTANCE.SECOND_COLUMN.get(currentPosition) && ((candidateOffset == -10) || (candidateOffset == 6));
-    }
-
-    private static boolean isSeventhColumnExclusion(final int currentPosition,
-                                                    final int candidateOffset) {
-        return BoardUtils.INSTANCE.SEVENTH_COLUMN.get(currentPosition) && ((candidateOffset == -6) || (candidateOffset == 10));
-    }
-
-    private static boolean isEighthColumnExclusion(final int currentPosition,
-                                                   final int candidateOffset) {
-        return BoardUtils.INSTANCE.EIGHTH_COLUMN.get(currentPosition) && ((candidateOffset == -15) || (candidateOffset == -6) ||
-                (candidateOffset == 10) || (candidateOffset == 17));
-    }
-
 }
\ No newline at end of file
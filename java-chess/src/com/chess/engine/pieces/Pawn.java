@@ -1,6 +1,7 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
@@ -17,8 +18,6 @@ import java.util.List;
 
 public class Pawn extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATES = {8, 16, 7, 9};
-
     public Pawn(final Alliance allegiance,
                 final int piecePosition) {
         super(PieceType.PAWN, piecePosition, allegiance, true);
@@ -30,121 +29,63 @@ public class Pawn extends Piece {
         super(PieceType.PAWN, piecePosition, alliance, isFirstMove);
     }
 
-    /*@Override
-    public int locationBonus() {
-        return this.pieceAlliance.pawnBonus(this.piecePosition);
-    }*/
-
     @Override
     public int locationBonus() {
-        return 0;
+        return this.pieceAlliance.pawnBonus(this.piecePosition);
     }
 
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for (final int currentCandidateOffset : CANDIDATE_MOVE_COORDINATES) {
-            int candidateDestinationCoordinate =
-                    this.piecePosition + (this.pieceAlliance.getDirection() * currentCandidateOffset);
-            if (!BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                continue;
-            }
-            if (currentCandidateOffset == 8 && board.getPiece(candidateDestinationCoordinate) == null) {
-                if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                    legalMoves.add(new PawnPromotion(
-                            new PawnMove(board, this, candidateDestinationCoordinate), PieceUtils.INSTANCE.getMovedQueen(this.pieceAlliance, candidateDestinationCoordinate)));
-                    legalMoves.add(new PawnPromotion(
-                            new PawnMove(board, this, candidateDestinationCoordinate), PieceUtils.INSTANCE.getMovedRook(this.pieceAlliance, candidateDestinationCoordinate)));
-                    legalMoves.add(new PawnPromotion(
-                            new PawnMove(board, this, candidateDestinationCoordinate), PieceUtils.INSTANCE.getMovedBishop(this.pieceAlliance, candidateDestinationCoordinate)));
-                    legalMoves.add(new PawnPromotion(
-                            new PawnMove(board, this, candidateDestinationCoordinate), PieceUtils.INSTANCE.getMovedKnight(this.pieceAlliance, candidateDestinationCoordinate)));
-                }
-                else {
-                    legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
-                }
-            }
-            else if (currentCandidateOffset == 16 && this.isFirstMove() &&
-                    ((BoardUtils.INSTANCE.SECOND_ROW.get(this.piecePosition) && this.pieceAlliance.isBlack()) ||
-                            (BoardUtils.INSTANCE.SEVENTH_ROW.get(this.piecePosition) && this.pieceAlliance.isWhite()))) {
-                final int behindCandidateDestinationCoordinate =
-                        this.piecePosition + (this.pieceAlliance.getDirection() * 8);
-                if (board.getPiece(candidateDestinationCoordinate) == null &&
-                        board.getPiece(behindCandidateDestinationCoordinate) == null) {
-                    legalMoves.add(new PawnJump(board, this, candidateDestinationCoordinate));
+        final int forwardCoordinate = this.piecePosition + (this.pieceAlliance.getDirection() * 8);
+        if (BoardUtils.isValidTileCoordinate(forwardCoordinate) && !board.isTileOccupied(forwardCoordinate)) {
+            if (this.pieceAlliance.isPawnPromotionSquare(forwardCoordinate)) {
+                addPromotions(legalMoves, new PawnMove(board, this, forwardCoordinate));
+            } else {
+                legalMoves.add(new PawnMove(board, this, forwardCoordinate));
+                final int jumpCoordinate = forwardCoordinate + (this.pieceAlliance.getDirection() * 8);
+                if (this.isFirstMove() && isStartingRow() && !board.isTileOccupied(jumpCoordinate)) {
+                    legalMoves.add(new PawnJump(board, this, jumpCoordinate));
                 }
             }
-            else if (currentCandidateOffset == 7 &&
-                    !((BoardUtils.INSTANCE.EIGHTH_COLUMN.get(this.piecePosition) && this.pieceAlliance.isWhite()) ||
-                            (BoardUtils.INSTANCE.FIRST_COLUMN.get(this.piecePosition) && this.pieceAlliance.isBlack()))) {
-                if(board.getPiece(candidateDestinationCoordinate) != null) {
-                    final Piece pieceOnCandidate = board.getPiece(candidateDestinationCoordinate);
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate), PieceUtils.INSTANCE.getMovedQueen(this.pieceAlliance, candidateDestinationCoordinate)));
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate), PieceUtils.INSTANCE.getMovedRook(this.pieceAlliance, candidateDestinationCoordinate)));
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate), PieceUtils.INSTANCE.getMovedBishop(this.pieceAlliance, candidateDestinationCoordinate)));
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate), PieceUtils.INSTANCE.getMovedKnight(this.pieceAlliance, candidateDestinationCoordinate)));
-                        }
-                        else {
-                            legalMoves.add(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                        }
-                    }
-                } else if (board.getEnPassantPawn() != null && board.getEnPassantPawn().getPiecePosition() ==
-                        (this.piecePosition + (this.pieceAlliance.getOppositeDirection()))) {
-                    final Piece pieceOnCandidate = board.getEnPassantPawn();
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        legalMoves.add(
-                                new PawnEnPassantAttack(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-
-                    }
-                }
-            }
-            else if (currentCandidateOffset == 9 &&
-                    !((BoardUtils.INSTANCE.FIRST_COLUMN.get(this.piecePosition) && this.pieceAlliance.isWhite()) ||
-                            (BoardUtils.INSTANCE.EIGHTH_COLUMN.get(this.piecePosition) && this.pieceAlliance.isBlack()))) {
-                if(board.getPiece(candidateDestinationCoordinate) != null) {
-                    if (this.pieceAlliance !=
-                            board.getPiece(candidateDestinationCoordinate).getPieceAlliance()) {
-                        if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
-                            legalMoves.add(new Move.PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate,
-                                            board.getPiece(candidateDestinationCoordinate)), PieceUtils.INSTANCE.getMovedQueen(this.pieceAlliance, candidateDestinationCoordinate)));
-                            legalMoves.add(new Move.PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate,
-                                            board.getPiece(candidateDestinationCoordinate)), PieceUtils.INSTANCE.getMovedRook(this.pieceAlliance, candidateDestinationCoordinate)));
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate,
-                                            board.getPiece(candidateDestinationCoordinate)), PieceUtils.INSTANCE.getMovedBishop(this.pieceAlliance, candidateDestinationCoordinate)));
-                            legalMoves.add(new PawnPromotion(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate,
-                                            board.getPiece(candidateDestinationCoordinate)), PieceUtils.INSTANCE.getMovedKnight(this.pieceAlliance, candidateDestinationCoordinate)));
-                        }
-                        else {
-                            legalMoves.add(
-                                    new PawnAttackMove(board, this, candidateDestinationCoordinate,
-                                            board.getPiece(candidateDestinationCoordinate)));
-                        }
-                    }
-                } else if (board.getEnPassantPawn() != null && board.getEnPassantPawn().getPiecePosition() ==
-                        (this.piecePosition - (this.pieceAlliance.getOppositeDirection()))) {
-                    final Piece pieceOnCandidate = board.getEnPassantPawn();
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        legalMoves.add(
-                                new Move.PawnEnPassantAttack(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-
-                    }
+        }
+        long attacks = BitBoardUtils.pawnAttacks(this.pieceAlliance, this.piecePosition);
+        final long enemyOccupancy = board.getOccupancy() & ~board.getOccupancy(this.pieceAlliance);
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        while (attacks != BitBoardUtils.EMPTY) {
+            final int candidateDestinationCoordinate = BitBoardUtils.firstCoordinate(attacks);
+            attacks = BitBoardUtils.clearFirst(attacks);
+            if (BitBoardUtils.isSet(enemyOccupancy, candidateDestinationCoordinate)) {
+                final Piece pieceOnCandidate = board.getPiece(candidateDestinationCoordinate);
+                final Move attackMove = new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate);
+                if (this.pieceAlliance.isPawnPromotionSquare(candidateDestinationCoordinate)) {
+                    addPromotions(legalMoves, attackMove);
+                } else {
+                    legalMoves.add(attackMove);
                 }
+            } else if (enPassantPawn != null && enPassantPawn.getPieceAlliance() != this.pieceAlliance &&
+                    enPassantPawn.getPiecePosition() ==
+                            candidateDestinationCoordinate + (this.pieceAlliance.getOppositeDirection() * 8)) {
+                legalMoves.add(new PawnEnPassantAttack(board, this, candidateDestinationCoordinate, enPassantPawn));
             }
         }
         return Collections.unmodifiableList(legalMoves);
     }
 
+    private boolean isStartingRow() {
+        return this.pieceAlliance.isBlack() ? BoardUtils.INSTANCE.SECOND_ROW.get(this.piecePosition) :
+                BoardUtils.INSTANCE.SEVENTH_ROW.get(this.piecePosition);
+    }
+
+    private void addPromotions(final List<Move> legalMoves,
+                               final Move pawnMove) {
+        final int destinationCoordinate = pawnMove.getDestinationCoordinate();
+        legalMoves.add(new PawnPromotion(pawnMove, PieceUtils.INSTANCE.getMovedQueen(this.pieceAlliance, destinationCoordinate)));
+        legalMoves.add(new PawnPromotion(pawnMove, PieceUtils.INSTANCE.getMovedRook(this.pieceAlliance, destinationCoordinate)));
+        legalMoves.add(new PawnPromotion(pawnMove, PieceUtils.INSTANCE.getMovedBishop(this.pieceAlliance, destinationCoordinate)));
+        legalMoves.add(new PawnPromotion(pawnMove, PieceUtils.INSTANCE.getMovedKnight(this.pieceAlliance, destinationCoordinate)));
+    }
+
     @Override
     public String toString() {
         return this.pieceType.toString();
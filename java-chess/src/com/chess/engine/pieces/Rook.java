@@ -1,21 +1,17 @@
 package com.chess.engine.pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.MajorAttackMove;
 import com.chess.engine.board.Move.MajorMove;
-import com.chess.engine.board.MoveUtils;
+import com.chess.engine.board.MagicBitBoards;
 
 import java.util.*;
 
 public class Rook extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_COORDINATES = { -8, -1, 1, 8 };
-
-    private final static Map<Integer, MoveUtils.Line[]> PRECOMPUTED_CANDIDATES = computeCandidates();
-
     public Rook(final Alliance alliance, final int piecePosition) {
         super(PieceType.ROOK, piecePosition, alliance, true);
     }
@@ -26,50 +22,20 @@ public class Rook extends Piece {
         super(PieceType.ROOK, piecePosition, alliance, isFirstMove);
     }
 
-    private static Map<Integer, MoveUtils.Line[]> computeCandidates() {
-        final Map<Integer, MoveUtils.Line[]> candidates = new HashMap<>();
-        for (int position = 0; position < BoardUtils.NUM_TILES; position++) {
-            List<MoveUtils.Line> lines = new ArrayList<>();
-            for (int offset : CANDIDATE_MOVE_COORDINATES) {
-                int destination = position;
-                MoveUtils.Line line = new MoveUtils.Line();
-                while (BoardUtils.isValidTileCoordinate(destination)) {
-                    if (isColumnExclusion(destination, offset)) {
-                        break;
-                    }
-                    destination += offset;
-                    if (BoardUtils.isValidTileCoordinate(destination)) {
-                        line.addCoordinate(destination);
-                    }
-                }
-                if (!line.isEmpty()) {
-                    lines.add(line);
-                }
-            }
-            if (!lines.isEmpty()) {
-                candidates.put(position, lines.toArray(new MoveUtils.Line[0]));
-            }
-        }
-        return Collections.unmodifiableMap(candidates);
-    }
-
-
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for (final MoveUtils.Line line : PRECOMPUTED_CANDIDATES.get(this.piecePosition)) {
-            for (final int candidateDestinationCoordinate : line.getLineCoordinates()) {
-                final Piece pieceAtDestination = board.getPiece(candidateDestinationCoordinate);
-                if (pieceAtDestination == null) {
-                    legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
-                } else {
-                    final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                    if (this.pieceAlliance != pieceAlliance) {
-                        legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
-                                pieceAtDestination));
-                    }
-                    break;
-                }
+        long candidates = MagicBitBoards.rookAttacks(this.piecePosition, board.getOccupancy()) &
+                ~board.getOccupancy(this.pieceAlliance);
+        while (candidates != BitBoardUtils.EMPTY) {
+            final int candidateDestinationCoordinate = BitBoardUtils.firstCoordinate(candidates);
+            candidates = BitBoardUtils.clearFirst(candidates);
+            final Piece pieceAtDestination = board.getPiece(candidateDestinationCoordinate);
+            if (pieceAtDestination == null) {
+                legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
+            } else {
+                legalMoves.add(new MajorAttackMove(board, this, candidateDestinationCoordinate,
+                        pieceAtDestination));
             }
         }
         return Collections.unmodifiableList(legalMoves);
@@ -90,10 +56,4 @@ public class Rook extends Piece {
         return this.pieceType.toString();
     }
 
-    private static boolean isColumnExclusion(final int position,
-                                             final int offset) {
-        return (BoardUtils.INSTANCE.FIRST_COLUMN.get(position) && (offset == -1)) ||
-                (BoardUtils.INSTANCE.EIGHTH_COLUMN.get(position) && (offset == 1));
-    }
-
 }
@@ -4,6 +4,10 @@ import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.MoveStatus;
+import com.chess.engine.board.MoveCodec;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Piece;
 import com.google.common.collect.ImmutableList;
@@ -26,6 +30,7 @@ public abstract class Player {
     protected final King playerKing;
     protected final Collection<Move> legalMoves;
     protected final boolean isInCheck;
+    private volatile MoveList strictlyLegalMoves;
 
     Player(final Board board,
            final Collection<Move> playerLegals,
@@ -73,9 +78,19 @@ public abstract class Player {
     }
 
     private boolean hasEscapeMoves() {
-        return this.legalMoves.stream()
-                .anyMatch(move -> makeMove(move)
-                        .getMoveStatus().isDone());
+        return !getStrictlyLegalMoves().isEmpty();
+    }
+
+    // The packed moves that do not leave the king attacked, generated once on first use with pins
+    // and checks resolved up front instead of executing every candidate move.
+    private MoveList getStrictlyLegalMoves() {
+        MoveList moves = this.strictlyLegalMoves;
+        if (moves == null) {
+            moves = new MoveList();
+            MoveGenerator.generateLegalMoves(SearchBoard.fromBoard(this.board, getAlliance()), moves);
+            this.strictlyLegalMoves = moves;
+        }
+        return moves;
     }
 
     public Collection<Move> getLegalMoves() {
@@ -93,10 +108,10 @@ public abstract class Player {
         if (!this.legalMoves.contains(move)) {
             return new MoveTransition(this.board, this.board, move, MoveStatus.ILLEGAL_MOVE);
         }
-        final Board transitionedBoard = move.execute();
-        return transitionedBoard.currentPlayer().getOpponent().isInCheck() ?
-                new MoveTransition(this.board, this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK) :
-                new MoveTransition(this.board, transitionedBoard, move, MoveStatus.DONE);
+        if (!getStrictlyLegalMoves().contains(MoveCodec.encode(move))) {
+            return new MoveTransition(this.board, this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
+        }
+        return new MoveTransition(this.board, move.execute(), move, MoveStatus.DONE);
     }
 
     public MoveTransition unMakeMove(final Move move) {
@@ -0,0 +1,11 @@
+package com.chess.engine.player.ai;
+
+import java.util.List;
+
+// Gets the lines of a multi-PV search, best first, each time an iteration completes. Called on the
+// searching thread, so a UI should hand the lines over to its own thread.
+public interface AnalysisListener {
+
+    void linesUpdated(List<SearchInfo> lines);
+
+}
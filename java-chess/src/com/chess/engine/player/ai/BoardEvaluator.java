@@ -0,0 +1,10 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+
+public interface BoardEvaluator {
+
+    // Centipawns from white's point of view.
+    int evaluate(Board board, int depth);
+
+}
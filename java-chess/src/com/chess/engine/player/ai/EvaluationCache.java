@@ -0,0 +1,73 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+// Static evaluations by Zobrist key, one long per entry: the upper 48 bits of the key above the score
+// in the lower 16. The low bits of the key pick the entry, so with at least 65536 entries the stored
+// bits and the index together hold the whole key. A new score simply overwrites whatever was there.
+// An entry is written in one store, so threads sharing the cache never see half of one.
+public final class EvaluationCache {
+
+    public static final int DEFAULT_SIZE_IN_ENTRIES = 1 << 18;
+    // never a score, as scores stay far inside 16 bits
+    public static final int NO_ENTRY = Integer.MIN_VALUE;
+
+    private static final long KEY_MASK = 0xFFFFFFFFFFFF0000L;
+    private static final long SCORE_MASK = 0xFFFFL;
+
+    private final long[] table;
+    private final int entryMask;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    // The size is rounded down to a power of two.
+    public EvaluationCache(final int sizeInEntries) {
+        final int entries = Integer.highestOneBit(Math.max(1, Math.min(sizeInEntries, 1 << 28)));
+        this.table = new long[entries];
+        this.entryMask = entries - 1;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    // The score stored for the key, or NO_ENTRY.
+    public int probe(final long zobristKey) {
+        final long entry = this.table[(int) zobristKey & this.entryMask];
+        if (entry != 0L && (entry & KEY_MASK) == (zobristKey & KEY_MASK)) {
+            this.hits.increment();
+            return (short) (entry & SCORE_MASK);
+        }
+        this.misses.increment();
+        return NO_ENTRY;
+    }
+
+    public void store(final long zobristKey,
+                      final int score) {
+        this.table[(int) zobristKey & this.entryMask] = (zobristKey & KEY_MASK) | (score & SCORE_MASK);
+    }
+
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    public int getSizeInEntries() {
+        return this.entryMask + 1;
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public double getHitRate() {
+        final long hits = getHits();
+        final long probes = hits + getMisses();
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveCodec;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PolyglotKey;
+import com.chess.engine.board.SearchBoard;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// An opening book in the Polyglot file layout: 16 byte big-endian entries of position key, move, weight
+// and a learn field, sorted by key as an unsigned number. The file is memory-mapped and a probe is a
+// binary search for the first entry of the key, so it reads a few cache lines and allocates nothing
+// until a key is found. The keys are Polyglot's own (see PolyglotKey), not the Zobrist keys of the
+// transposition table, so books made by other tools can be read as well as those made from games with
+// PGNUtilities.writeOpeningBook.
+public final class OpeningBook {
+
+    public static final int ENTRY_SIZE = 16;
+    public static final int MAX_WEIGHT = 0xFFFF;
+
+    private final ByteBuffer entries;
+    private final int entryCount;
+
+    public OpeningBook(final File bookFile) throws IOException {
+        try (final FileChannel channel = FileChannel.open(bookFile.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size % ENTRY_SIZE != 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + bookFile);
+            }
+            this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            this.entryCount = (int) (size / ENTRY_SIZE);
+        }
+    }
+
+    public int getEntryCount() {
+        return this.entryCount;
+    }
+
+    // The legal book moves of the position, heaviest first. Entries that name no legal move are left out.
+    public List<Entry> getEntries(final SearchBoard board) {
+        final long key = PolyglotKey.calculateKey(board);
+        int index = firstIndexOf(key);
+        if (index == this.entryCount) {
+            return Collections.emptyList();
+        }
+        final MoveList legalMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, legalMoves);
+        final List<Entry> bookMoves = new ArrayList<>();
+        for (; index < this.entryCount && keyAt(index) == key; index++) {
+            final int move = findMove(legalMoves, moveAt(index));
+            if (move != MoveCodec.NULL_MOVE) {
+                bookMoves.add(new Entry(move, weightAt(index)));
+            }
+        }
+        return bookMoves;
+    }
+
+    // A book move picked with a chance in proportion to its weight, or the null move out of book.
+    public int getBookMove(final SearchBoard board,
+                           final Random random) {
+        final List<Entry> bookMoves = getEntries(board);
+        int totalWeight = 0;
+        for (final Entry entry : bookMoves) {
+            totalWeight += entry.getWeight();
+        }
+        if (totalWeight == 0) {
+            return MoveCodec.NULL_MOVE;
+        }
+        int pick = random.nextInt(totalWeight);
+        for (final Entry entry : bookMoves) {
+            pick -= entry.getWeight();
+            if (pick < 0) {
+                return entry.getMove();
+            }
+        }
+        return MoveCodec.NULL_MOVE;
+    }
+
+    public Move getBookMove(final Board board,
+                            final Random random) {
+        final int move = getBookMove(SearchBoard.fromBoard(board), random);
+        return move == MoveCodec.NULL_MOVE ? MoveFactory.getNullMove() : MoveCodec.decode(board, move);
+    }
+
+    // A packed move as Polyglot writes it: to file, to rank, from file, from rank and promotion piece in
+    // three bits each, rank 1 being 0. A castle is the king taking its own rook.
+    public static int toPolyglotMove(final int move) {
+        final int from = MoveCodec.getFrom(move);
+        int to = MoveCodec.getTo(move);
+        if (MoveCodec.getFlag(move) == MoveCodec.KING_CASTLE) {
+            to = from + 3;
+        } else if (MoveCodec.getFlag(move) == MoveCodec.QUEEN_CASTLE) {
+            to = from - 4;
+        }
+        // the knight to queen ordinals of PieceType are Polyglot's 1 to 4
+        final int promotion = MoveCodec.isPromotion(move) ? MoveCodec.getPromotionType(move) : 0;
+        return (to % 8) | ((7 - to / 8) << 3) | ((from % 8) << 6) | ((7 - from / 8) << 9) | (promotion << 12);
+    }
+
+    public static void writeEntry(final DataOutputStream out,
+                                  final long key,
+                                  final int polyglotMove,
+                                  final int weight) throws IOException {
+        out.writeLong(key);
+        out.writeShort(polyglotMove);
+        out.writeShort(weight);
+        out.writeInt(0);
+    }
+
+    // The first entry whose key is not below the given one, in unsigned order.
+    private int firstIndexOf(final long key) {
+        int low = 0;
+        int high = this.entryCount;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int findMove(final MoveList legalMoves,
+                                final int polyglotMove) {
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (toPolyglotMove(legalMoves.get(i)) == polyglotMove) {
+                return legalMoves.get(i);
+            }
+        }
+        return MoveCodec.NULL_MOVE;
+    }
+
+    private long keyAt(final int index) {
+        return this.entries.getLong(index * ENTRY_SIZE);
+    }
+
+    private int moveAt(final int index) {
+        return this.entries.getShort(index * ENTRY_SIZE + 8) & 0xFFFF;
+    }
+
+    private int weightAt(final int index) {
+        return this.entries.getShort(index * ENTRY_SIZE + 10) & 0xFFFF;
+    }
+
+    // A book move with its weight.
+    public static final class Entry {
+
+        private final int move;
+        private final int weight;
+
+        Entry(final int move,
+              final int weight) {
+            this.move = move;
+            this.weight = weight;
+        }
+
+        public int getMove() {
+            return this.move;
+        }
+
+        public int getWeight() {
+            return this.weight;
+        }
+
+        @Override
+        public String toString() {
+            return MoveCodec.toString(this.move) + " " + this.weight;
+        }
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+// Pawn structure scores and passed pawns by pawn key, shared by any number of search threads without
+// locks. The pawns change in few moves, so most leaves of a search find their structure here. Every
+// entry is three longs, the key XOR both data words and then the data words, so a write torn by a
+// racing thread fails the key check on probe and reads as a miss. New entries always replace old ones.
+public final class PawnHashTable {
+
+    // no pawn can stand on h1, so this is never a passed pawn mask, nor a packed pair of scores
+    public static final long NO_ENTRY = Long.MIN_VALUE;
+    public static final int DEFAULT_SIZE_IN_ENTRIES = 1 << 16;
+
+    private static final int LONGS_PER_ENTRY = 3;
+
+    private final long[] table;
+    private final int entryMask;
+
+    // The size is rounded down to a power of two.
+    public PawnHashTable(final int sizeInEntries) {
+        final int entries = Integer.highestOneBit(Math.max(1, Math.min(sizeInEntries, 1 << 26)));
+        this.table = new long[entries * LONGS_PER_ENTRY];
+        this.entryMask = entries - 1;
+    }
+
+    // The scores stored for the key, or NO_ENTRY. Unpack them with the static getters.
+    public long probe(final long pawnKey) {
+        final int index = entryIndex(pawnKey);
+        final long scores = this.table[index + 1];
+        return (this.table[index] ^ scores ^ this.table[index + 2]) == pawnKey ? scores : NO_ENTRY;
+    }
+
+    // The passed pawns of both sides stored for the key, or NO_ENTRY.
+    public long probePassedPawns(final long pawnKey) {
+        final int index = entryIndex(pawnKey);
+        final long passedPawns = this.table[index + 2];
+        return (this.table[index] ^ this.table[index + 1] ^ passedPawns) == pawnKey ? passedPawns : NO_ENTRY;
+    }
+
+    public void store(final long pawnKey,
+                      final int middleGameScore,
+                      final int endGameScore,
+                      final long passedPawns) {
+        final int index = entryIndex(pawnKey);
+        final long scores = pack(middleGameScore, endGameScore);
+        this.table[index] = pawnKey ^ scores ^ passedPawns;
+        this.table[index + 1] = scores;
+        this.table[index + 2] = passedPawns;
+    }
+
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+    }
+
+    public int getSizeInEntries() {
+        return this.entryMask + 1;
+    }
+
+    public static int getMiddleGameScore(final long scores) {
+        return (int) (scores >> Integer.SIZE);
+    }
+
+    public static int getEndGameScore(final long scores) {
+        return (int) scores;
+    }
+
+    static long pack(final int middleGameScore,
+                     final int endGameScore) {
+        return ((long) middleGameScore << Integer.SIZE) | (endGameScore & 0xFFFFFFFFL);
+    }
+
+    private int entryIndex(final long pawnKey) {
+        return ((int) (pawnKey >>> 32) & this.entryMask) * LONGS_PER_ENTRY;
+    }
+
+}
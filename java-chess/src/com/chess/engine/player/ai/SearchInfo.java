@@ -0,0 +1,123 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.MoveCodec;
+
+// What a search reports to its observers each time an iteration completes.
+public final class SearchInfo {
+
+    private final int depth;
+    private final int rank;
+    private final int score;
+    private final int selectiveDepth;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final double tableHitRate;
+    private final double branchingFactor;
+    private final double firstMoveCutoffRate;
+    private final int[] principalVariation;
+
+    SearchInfo(final int depth,
+               final int rank,
+               final int score,
+               final int selectiveDepth,
+               final long nodes,
+               final long elapsedNanos,
+               final double tableHitRate,
+               final double branchingFactor,
+               final double firstMoveCutoffRate,
+               final int[] principalVariation) {
+        this.depth = depth;
+        this.rank = rank;
+        this.score = score;
+        this.selectiveDepth = selectiveDepth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.tableHitRate = tableHitRate;
+        this.branchingFactor = branchingFactor;
+        this.firstMoveCutoffRate = firstMoveCutoffRate;
+        this.principalVariation = principalVariation;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    // 1 for the best line of a multi-PV search, 2 for the next and so on; always 1 otherwise.
+    public int getRank() {
+        return this.rank;
+    }
+
+    // Centipawns from the point of view of the side to move at the root.
+    public int getScore() {
+        return this.score;
+    }
+
+    // The deepest ply reached, quiescence included.
+    public int getSelectiveDepth() {
+        return this.selectiveDepth;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    public long getNodesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.nodes * 1_000_000_000L / this.elapsedNanos;
+    }
+
+    // The fraction of transposition table probes that found an entry.
+    public double getTableHitRate() {
+        return this.tableHitRate;
+    }
+
+    // The nodes of the search so far over those at the end of the iteration before, 0 after the first.
+    public double getBranchingFactor() {
+        return this.branchingFactor;
+    }
+
+    // The fraction of beta cutoffs that came from the first move searched, a measure of move ordering.
+    public double getFirstMoveCutoffRate() {
+        return this.firstMoveCutoffRate;
+    }
+
+    // Packed moves, see MoveCodec.
+    public int[] getPrincipalVariation() {
+        return this.principalVariation.clone();
+    }
+
+    public boolean isMateScore() {
+        return Math.abs(this.score) >= StockAlphaBeta.MATE_SCORE - StockAlphaBeta.MAX_SEARCH_PLY;
+    }
+
+    // Moves to mate for a mate score, negative when the side to move is mated.
+    public int getMateInMoves() {
+        final int matePly = StockAlphaBeta.MATE_SCORE - Math.abs(this.score);
+        return this.score > 0 ? (matePly + 1) / 2 : -(matePly + 1) / 2;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("depth ").append(this.depth)
+                .append(" seldepth ").append(this.selectiveDepth)
+                .append(" multipv ").append(this.rank);
+        if (isMateScore()) {
+            builder.append(" score mate ").append(getMateInMoves());
+        } else {
+            builder.append(" score cp ").append(this.score);
+        }
+        builder.append(" nodes ").append(this.nodes)
+                .append(" nps ").append(getNodesPerSecond())
+                .append(" time ").append(this.elapsedNanos / 1_000_000)
+                .append(" pv");
+        for (final int move : this.principalVariation) {
+            builder.append(' ').append(MoveCodec.toString(move));
+        }
+        return builder.toString();
+    }
+
+}
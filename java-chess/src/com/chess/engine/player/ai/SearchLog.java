@@ -0,0 +1,72 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.MoveCodec;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Observable;
+import java.util.Observer;
+
+// Writes every SearchInfo a search reports as one JSON object per line, for log shippers. Observe a
+// StockAlphaBeta with it. Like a PrintWriter it never throws, so a broken log cannot stop a search;
+// checkError tells whether writing failed.
+//
+// {"timestamp":1700000000000,"depth":9,"seldepth":21,"multipv":1,"score":{"cp":35},"nodes":812345,
+//  "nps":1650000,"timeMillis":492,"tableHitRate":0.412,"branchingFactor":2.31,
+//  "firstMoveCutoffRate":0.894,"pv":["e2e4","e7e5"]}
+public final class SearchLog implements Observer {
+
+    private final PrintWriter writer;
+
+    public SearchLog(final Writer writer) {
+        this.writer = writer instanceof PrintWriter ? (PrintWriter) writer : new PrintWriter(writer);
+    }
+
+    @Override
+    public void update(final Observable search,
+                       final Object info) {
+        if (info instanceof SearchInfo) {
+            final String line = toJson((SearchInfo) info, System.currentTimeMillis());
+            synchronized (this.writer) {
+                this.writer.write(line);
+                this.writer.write('\n');
+                this.writer.flush();
+            }
+        }
+    }
+
+    public boolean checkError() {
+        return this.writer.checkError();
+    }
+
+    static String toJson(final SearchInfo info,
+                         final long timestamp) {
+        final StringBuilder builder = new StringBuilder(256);
+        builder.append("{\"timestamp\":").append(timestamp)
+                .append(",\"depth\":").append(info.getDepth())
+                .append(",\"seldepth\":").append(info.getSelectiveDepth())
+                .append(",\"multipv\":").append(info.getRank())
+                .append(",\"score\":{");
+        if (info.isMateScore()) {
+            builder.append("\"mate\":").append(info.getMateInMoves());
+        } else {
+            builder.append("\"cp\":").append(info.getScore());
+        }
+        builder.append("},\"nodes\":").append(info.getNodes())
+                .append(",\"nps\":").append(info.getNodesPerSecond())
+                .append(",\"timeMillis\":").append(info.getElapsedNanos() / 1_000_000)
+                .append(String.format(Locale.ROOT, ",\"tableHitRate\":%.3f,\"branchingFactor\":%.2f,\"firstMoveCutoffRate\":%.3f",
+                        info.getTableHitRate(), info.getBranchingFactor(), info.getFirstMoveCutoffRate()))
+                .append(",\"pv\":[");
+        final int[] principalVariation = info.getPrincipalVariation();
+        for (int i = 0; i < principalVariation.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append('"').append(MoveCodec.toString(principalVariation[i])).append('"');
+        }
+        return builder.append("]}").toString();
+    }
+
+}
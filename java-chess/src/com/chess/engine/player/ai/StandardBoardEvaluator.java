@@ -0,0 +1,245 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.PieceSquareTables;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// Material plus the piece placement tables in Alliance, the pawn structure and the pawn shield of each
+// king, tapered from the middle game to the endgame by the material left, and a bonus for the bishop
+// pair. The material and placement sums are kept by the SearchBoard as it moves pieces, and the pawn
+// structure with its passed pawns comes from a PawnHashTable when one is given, so a leaf mostly
+// blends them.
+public final class StandardBoardEvaluator
+        implements BoardEvaluator {
+
+    private static final int BISHOP_PAIR_BONUS = 30;
+    private static final int DOUBLED_PAWN_MIDDLE_GAME_PENALTY = 10;
+    private static final int DOUBLED_PAWN_END_GAME_PENALTY = 20;
+    private static final int ISOLATED_PAWN_MIDDLE_GAME_PENALTY = 10;
+    private static final int ISOLATED_PAWN_END_GAME_PENALTY = 15;
+    private static final int NEAR_PAWN_SHIELD_BONUS = 10;
+    private static final int FAR_PAWN_SHIELD_BONUS = 5;
+    // by rank counted from the own side
+    private static final int[] PASSED_PAWN_MIDDLE_GAME_BONUS = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_PAWN_END_GAME_BONUS = {0, 10, 15, 25, 45, 70, 110, 0};
+    private static final long FIRST_COLUMN = 0x0101010101010101L;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    // the tiles in front of a pawn, on its file and both next to it, that no enemy pawn may hold for it to be passed
+    private static final long[][] PASSED_PAWN_SPANS = initPassedPawnSpans();
+    private static final StandardBoardEvaluator INSTANCE = new StandardBoardEvaluator();
+
+    private StandardBoardEvaluator() {
+    }
+
+    public static StandardBoardEvaluator get() {
+        return INSTANCE;
+    }
+
+    @Override
+    public int evaluate(final Board board,
+                        final int depth) {
+        return whiteScore(SearchBoard.fromBoard(board), null, null);
+    }
+
+    // Centipawns from the point of view of the side to move, as negamax wants it.
+    public int evaluate(final SearchBoard board) {
+        return evaluate(board, null);
+    }
+
+    // The same, with the pawn structure cached in the table; null computes it every time.
+    public int evaluate(final SearchBoard board,
+                        final PawnHashTable pawnHashTable) {
+        return evaluate(board, pawnHashTable, null);
+    }
+
+    // The same, adding one to pawnHashHits[0] whenever the table has the pawn structure. Every search
+    // thread counts into its own array, so the table stays free of shared counters.
+    public int evaluate(final SearchBoard board,
+                        final PawnHashTable pawnHashTable,
+                        final long[] pawnHashHits) {
+        final int whiteScore = whiteScore(board, pawnHashTable, pawnHashHits);
+        return board.getSideToMove().isWhite() ? whiteScore : -whiteScore;
+    }
+
+    public String evaluationDetails(final Board board,
+                                    final int depth) {
+        final SearchBoard searchBoard = SearchBoard.fromBoard(board);
+        final long pawnStructure = evaluatePawnStructure(searchBoard.getPieceBitBoard(Alliance.WHITE, PieceType.PAWN),
+                searchBoard.getPieceBitBoard(Alliance.BLACK, PieceType.PAWN));
+        final int whiteMaterial = material(searchBoard, Alliance.WHITE);
+        final int blackMaterial = material(searchBoard, Alliance.BLACK);
+        return ("White Material : " + whiteMaterial + "\n" +
+                "White Bishop Pair : " + bishopPair(searchBoard, Alliance.WHITE) + "\n" +
+                "White Pawn Shield : " + pawnShield(searchBoard, Alliance.WHITE) + "\n" +
+                "---------------------\n" +
+                "Black Material : " + blackMaterial + "\n" +
+                "Black Bishop Pair : " + bishopPair(searchBoard, Alliance.BLACK) + "\n" +
+                "Black Pawn Shield : " + pawnShield(searchBoard, Alliance.BLACK) + "\n" +
+                "---------------------\n" +
+                "Middle Game Placement : " + (searchBoard.getMiddleGameScore() - whiteMaterial + blackMaterial) + "\n" +
+                "End Game Placement : " + (searchBoard.getEndGameScore() - whiteMaterial + blackMaterial) + "\n" +
+                "Middle Game Pawn Structure : " + PawnHashTable.getMiddleGameScore(pawnStructure) + "\n" +
+                "End Game Pawn Structure : " + PawnHashTable.getEndGameScore(pawnStructure) + "\n" +
+                "Phase : " + Math.min(searchBoard.getPhase(), PieceSquareTables.MAX_PHASE) + "/" +
+                PieceSquareTables.MAX_PHASE + "\n\n" +
+                "Final Score = " + evaluate(board, depth));
+    }
+
+    private static int whiteScore(final SearchBoard board,
+                                  final PawnHashTable pawnHashTable,
+                                  final long[] pawnHashHits) {
+        final long whitePawns = board.getPieceBitBoard(Alliance.WHITE, PieceType.PAWN);
+        final long blackPawns = board.getPieceBitBoard(Alliance.BLACK, PieceType.PAWN);
+        final long pawnKey = board.getPawnKey();
+        long pawnStructure = pawnHashTable == null ? PawnHashTable.NO_ENTRY : pawnHashTable.probe(pawnKey);
+        long passedPawns = pawnStructure == PawnHashTable.NO_ENTRY ? PawnHashTable.NO_ENTRY :
+                pawnHashTable.probePassedPawns(pawnKey);
+        if (passedPawns != PawnHashTable.NO_ENTRY && pawnHashHits != null) {
+            pawnHashHits[0]++;
+        }
+        if (passedPawns == PawnHashTable.NO_ENTRY) {
+            pawnStructure = evaluatePawnStructure(whitePawns, blackPawns);
+            passedPawns = passedPawns(whitePawns, blackPawns);
+            if (pawnHashTable != null) {
+                pawnHashTable.store(pawnKey, PawnHashTable.getMiddleGameScore(pawnStructure),
+                        PawnHashTable.getEndGameScore(pawnStructure), passedPawns);
+            }
+        }
+        final int middleGameScore = board.getMiddleGameScore() + PawnHashTable.getMiddleGameScore(pawnStructure) +
+                pawnShield(board, Alliance.WHITE) - pawnShield(board, Alliance.BLACK);
+        final int endGameScore = board.getEndGameScore() + PawnHashTable.getEndGameScore(pawnStructure) -
+                blockedPassedPawns(board, passedPawns & whitePawns, Alliance.WHITE) +
+                blockedPassedPawns(board, passedPawns & blackPawns, Alliance.BLACK);
+        return PieceSquareTables.taper(middleGameScore, endGameScore, board.getPhase()) +
+                bishopPair(board, Alliance.WHITE) - bishopPair(board, Alliance.BLACK);
+    }
+
+    // Doubled, isolated and passed pawns, white positive, packed as in the PawnHashTable.
+    private static long evaluatePawnStructure(final long whitePawns,
+                                              final long blackPawns) {
+        int middleGameScore = 0;
+        int endGameScore = 0;
+        for (int file = 0; file < 8; file++) {
+            final long fileMask = FIRST_COLUMN << file;
+            final long adjacentFiles = (file > 0 ? fileMask >>> 1 : 0) | (file < 7 ? fileMask << 1 : 0);
+            for (final Alliance alliance : ALLIANCES) {
+                final long pawns = alliance.isWhite() ? whitePawns : blackPawns;
+                final int sign = alliance.isWhite() ? 1 : -1;
+                final int count = Long.bitCount(pawns & fileMask);
+                if (count > 1) {
+                    middleGameScore -= sign * DOUBLED_PAWN_MIDDLE_GAME_PENALTY * (count - 1);
+                    endGameScore -= sign * DOUBLED_PAWN_END_GAME_PENALTY * (count - 1);
+                }
+                if (count > 0 && (pawns & adjacentFiles) == BitBoardUtils.EMPTY) {
+                    middleGameScore -= sign * ISOLATED_PAWN_MIDDLE_GAME_PENALTY * count;
+                    endGameScore -= sign * ISOLATED_PAWN_END_GAME_PENALTY * count;
+                }
+            }
+        }
+        long passedPawns = passedPawns(whitePawns, blackPawns);
+        while (passedPawns != BitBoardUtils.EMPTY) {
+            final int coordinate = BitBoardUtils.firstCoordinate(passedPawns);
+            passedPawns = BitBoardUtils.clearFirst(passedPawns);
+            final boolean isWhite = BitBoardUtils.isSet(whitePawns, coordinate);
+            final int rank = relativeRank(coordinate, isWhite);
+            middleGameScore += (isWhite ? 1 : -1) * PASSED_PAWN_MIDDLE_GAME_BONUS[rank];
+            endGameScore += (isWhite ? 1 : -1) * PASSED_PAWN_END_GAME_BONUS[rank];
+        }
+        return PawnHashTable.pack(middleGameScore, endGameScore);
+    }
+
+    private static long passedPawns(final long whitePawns,
+                                    final long blackPawns) {
+        long passedPawns = BitBoardUtils.EMPTY;
+        for (final Alliance alliance : ALLIANCES) {
+            final long enemyPawns = alliance.isWhite() ? blackPawns : whitePawns;
+            final long[] spans = PASSED_PAWN_SPANS[alliance.ordinal()];
+            long pawns = alliance.isWhite() ? whitePawns : blackPawns;
+            while (pawns != BitBoardUtils.EMPTY) {
+                final int coordinate = BitBoardUtils.firstCoordinate(pawns);
+                pawns = BitBoardUtils.clearFirst(pawns);
+                if ((spans[coordinate] & enemyPawns) == BitBoardUtils.EMPTY) {
+                    passedPawns |= BitBoardUtils.squareMask(coordinate);
+                }
+            }
+        }
+        return passedPawns;
+    }
+
+    // Half the endgame passed pawn bonus for each passed pawn with a piece standing in front of it.
+    private static int blockedPassedPawns(final SearchBoard board,
+                                          final long passedPawns,
+                                          final Alliance alliance) {
+        final long occupancy = board.getOccupancy();
+        int penalty = 0;
+        long pawns = passedPawns;
+        while (pawns != BitBoardUtils.EMPTY) {
+            final int coordinate = BitBoardUtils.firstCoordinate(pawns);
+            pawns = BitBoardUtils.clearFirst(pawns);
+            if (BitBoardUtils.isSet(occupancy, coordinate + alliance.getDirection() * 8)) {
+                penalty += PASSED_PAWN_END_GAME_BONUS[relativeRank(coordinate, alliance.isWhite())] / 2;
+            }
+        }
+        return penalty;
+    }
+
+    // Own pawns on the king's file and both next to it, one and two rows ahead, while the king is on
+    // its first two rows. It depends on the king, so it is not part of the cached pawn structure.
+    private static int pawnShield(final SearchBoard board,
+                                  final Alliance alliance) {
+        final int king = board.getKingCoordinate(alliance);
+        final int row = king / 8;
+        final int relativeRow = alliance.isWhite() ? 7 - row : row;
+        if (relativeRow > 1) {
+            return 0;
+        }
+        final long kingFile = FIRST_COLUMN << (king % 8);
+        final long shieldFiles = kingFile | (king % 8 > 0 ? kingFile >>> 1 : 0) | (king % 8 < 7 ? kingFile << 1 : 0);
+        final long pawns = board.getPieceBitBoard(alliance, PieceType.PAWN) & shieldFiles;
+        final int direction = alliance.getDirection();
+        return NEAR_PAWN_SHIELD_BONUS * Long.bitCount(pawns & (0xFFL << ((row + direction) * 8))) +
+                FAR_PAWN_SHIELD_BONUS * Long.bitCount(pawns & (0xFFL << ((row + 2 * direction) * 8)));
+    }
+
+    private static int relativeRank(final int coordinate,
+                                    final boolean isWhite) {
+        return isWhite ? 7 - coordinate / 8 : coordinate / 8;
+    }
+
+    private static int material(final SearchBoard board,
+                                final Alliance alliance) {
+        int material = 0;
+        for (final PieceType pieceType : PIECE_TYPES) {
+            material += Long.bitCount(board.getPieceBitBoard(alliance, pieceType)) *
+                    PieceSquareTables.materialValue(pieceType);
+        }
+        return material;
+    }
+
+    private static int bishopPair(final SearchBoard board,
+                                  final Alliance alliance) {
+        return Long.bitCount(board.getPieceBitBoard(alliance, PieceType.BISHOP)) >= 2 ? BISHOP_PAIR_BONUS : 0;
+    }
+
+    private static long[][] initPassedPawnSpans() {
+        final long[][] spans = new long[ALLIANCES.length][64];
+        for (final Alliance alliance : ALLIANCES) {
+            for (int coordinate = 0; coordinate < 64; coordinate++) {
+                final int file = coordinate % 8;
+                long span = BitBoardUtils.EMPTY;
+                for (int row = coordinate / 8 + alliance.getDirection(); row >= 0 && row < 8; row += alliance.getDirection()) {
+                    for (int spanFile = Math.max(0, file - 1); spanFile <= Math.min(7, file + 1); spanFile++) {
+                        span |= BitBoardUtils.squareMask(row * 8 + spanFile);
+                    }
+                }
+                spans[alliance.ordinal()][coordinate] = span;
+            }
+        }
+        return spans;
+    }
+
+}
@@ -0,0 +1,1115 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveCodec;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.board.StaticExchange;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Observable;
+import java.util.Random;
+
+import static com.chess.engine.board.BitBoardUtils.NUM_PIECE_TYPES;
+import static com.chess.engine.board.BoardUtils.NUM_TILES;
+
+// Negamax alpha-beta over a SearchBoard with iterative deepening, principal variation search,
+// aspiration windows and a quiescence search at the leaves. Each completed iteration is sent to the
+// observers as a SearchInfo; the search stops at the depth limit or as soon as the time or node
+// budget runs out, returning the best move of the last completed iteration. In timed games a
+// TimeManager decides between iterations whether to go on, and the search can ponder: think about the
+// position after the expected reply while the opponent moves, and carry on in the same tree when the
+// reply comes.
+//
+// Away from the principal variation the search is selective: null move pruning, late move
+// reductions, and reverse futility and futility pruning near the leaves. The Builder can switch
+// each of them off.
+//
+// With more than one thread the search is Lazy SMP: helper threads run the same iterative deepening
+// on their own SearchBoard, every other one a ply ahead, and only share the transposition table,
+// which they fill for the main thread. The main thread alone reports and picks the move, and stops
+// the helpers when it finishes. One thread searches exactly as the plain single-threaded search.
+public class StockAlphaBeta extends Observable implements MoveStrategy {
+
+    public static final int MATE_SCORE = 1_000_000;
+    public static final int MAX_SEARCH_PLY = 128;
+    public static final long NO_LIMIT = Long.MAX_VALUE;
+    public static final int DEFAULT_HASH_SIZE_IN_MEGABYTES = 16;
+
+    private static final int INFINITY = MATE_SCORE + 1;
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int MIN_ASPIRATION_DEPTH = 4;
+    private static final int LIMIT_CHECK_MASK = 2047;
+    private static final int PV_MOVE_SCORE = Integer.MAX_VALUE;
+    private static final int GOOD_CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_MOVE_SCORE = 1 << 27;
+    private static final int COUNTER_MOVE_SCORE = KILLER_MOVE_SCORE - 2;
+    private static final int MAX_HISTORY_SCORE = 1 << 20;
+    private static final int MAX_FUTILITY_DEPTH = 3;
+    private static final int FUTILITY_MARGIN = 120;
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_REDUCTION = 2;
+    private static final int NULL_MOVE_REDUCTION_DIVISOR = 6;
+    private static final int LATE_MOVE_REDUCTION_MIN_DEPTH = 3;
+    private static final int LATE_MOVE_REDUCTION_MIN_MOVES = 3;
+    // grows with the logarithm of both the depth left and the move number
+    private static final int[][] LATE_MOVE_REDUCTIONS = initLateMoveReductions();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private final int searchDepth;
+    private final long timeLimitMillis;
+    private final long nodeLimit;
+    private final int threadCount;
+    private final boolean orderingHeuristics;
+    private final boolean nullMovePruning;
+    private final boolean lateMoveReductions;
+    private final boolean reverseFutilityPruning;
+    private final boolean futilityPruning;
+    private final StandardBoardEvaluator evaluator;
+    private final TranspositionTable transpositionTable;
+    private final PawnHashTable pawnHashTable;
+    private final EvaluationCache evaluationCache;
+    private final OpeningBook openingBook;
+    private final Random bookRandom;
+    private final SearchWorker[] workers;
+    // the clock, set again on a ponder hit while the search runs
+    private volatile TimeManager timeManager;
+    private volatile long clockStartTime;
+    private volatile long deadline;
+    private volatile boolean stopped;
+    private volatile boolean pondering;
+    private volatile int[] principalVariation;
+    private volatile List<SearchInfo> lines;
+    // the nodes of all threads at the last report, for the branching factor
+    private long iterationNodes;
+    // the settings of the search being run, set by execute and analyze only
+    private int lineCount;
+    private AnalysisListener analysisListener;
+    private Thread ponderThread;
+    private Board ponderBoard;
+    private long ponderStartTime;
+    private int ponderMove;
+
+    public StockAlphaBeta(final int searchDepth) {
+        this(new Builder().setSearchDepth(searchDepth));
+    }
+
+    private StockAlphaBeta(final Builder builder) {
+        this.searchDepth = Math.min(builder.searchDepth, MAX_SEARCH_PLY - 1);
+        this.timeLimitMillis = builder.timeLimitMillis;
+        this.nodeLimit = builder.nodeLimit;
+        this.threadCount = Math.max(1, builder.threadCount);
+        this.orderingHeuristics = builder.orderingHeuristics;
+        this.nullMovePruning = builder.nullMovePruning;
+        this.lateMoveReductions = builder.lateMoveReductions;
+        this.reverseFutilityPruning = builder.reverseFutilityPruning;
+        this.futilityPruning = builder.futilityPruning;
+        this.evaluator = StandardBoardEvaluator.get();
+        this.transpositionTable = builder.transpositionTable != null ? builder.transpositionTable :
+                new TranspositionTable(builder.hashSizeInMegabytes);
+        this.pawnHashTable = builder.pawnHashTable != null ? builder.pawnHashTable :
+                builder.pawnHashSizeInEntries > 0 ? new PawnHashTable(builder.pawnHashSizeInEntries) : null;
+        this.evaluationCache = builder.evaluationCache != null ? builder.evaluationCache :
+                builder.evaluationCacheSizeInEntries > 0 ? new EvaluationCache(builder.evaluationCacheSizeInEntries) : null;
+        this.openingBook = builder.openingBook;
+        this.bookRandom = new Random();
+        this.workers = new SearchWorker[this.threadCount];
+        for (int i = 0; i < this.threadCount; i++) {
+            this.workers[i] = new SearchWorker(i);
+        }
+        this.principalVariation = new int[0];
+        this.lines = Collections.emptyList();
+        this.lineCount = 1;
+    }
+
+    @Override
+    public String toString() {
+        return "StockAB";
+    }
+
+    // Nodes searched by all threads in the last search.
+    @Override
+    public long getNumBoardsEvaluated() {
+        long nodes = 0;
+        for (final SearchWorker worker : this.workers) {
+            nodes += worker.nodes;
+        }
+        return nodes;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    // null when the pawn structure is computed at every leaf
+    public PawnHashTable getPawnHashTable() {
+        return this.pawnHashTable;
+    }
+
+    // null when every leaf is evaluated
+    public EvaluationCache getEvaluationCache() {
+        return this.evaluationCache;
+    }
+
+    public int getThreadCount() {
+        return this.threadCount;
+    }
+
+    // The fraction of beta cutoffs in the last search that came from the first move searched.
+    public double getFirstMoveCutoffRate() {
+        long cutoffs = 0;
+        long firstMoveCutoffs = 0;
+        for (final SearchWorker worker : this.workers) {
+            cutoffs += worker.cutoffs;
+            firstMoveCutoffs += worker.firstMoveCutoffs;
+        }
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    // The fraction of transposition table probes in the last search that found an entry.
+    public double getTableHitRate() {
+        long probes = 0;
+        long hits = 0;
+        for (final SearchWorker worker : this.workers) {
+            probes += worker.tableProbes;
+            hits += worker.tableHits;
+        }
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    // The fraction of evaluations in the last search that found their pawn structure in the pawn hash.
+    public double getPawnHashHitRate() {
+        long probes = 0;
+        long hits = 0;
+        for (final SearchWorker worker : this.workers) {
+            probes += worker.pawnHashProbes;
+            hits += worker.pawnHashHits[0];
+        }
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    // The deepest ply any thread reached in the last search, quiescence included.
+    public int getSelectiveDepth() {
+        int selectiveDepth = 0;
+        for (final SearchWorker worker : this.workers) {
+            selectiveDepth = Math.max(selectiveDepth, worker.selectiveDepth);
+        }
+        return selectiveDepth;
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        return execute(board, null);
+    }
+
+    // A move on the clock: the time manager stops the search between iterations, and its maximum
+    // joins the time limit of the Builder. With only one legal move the search stops after the first
+    // iteration, which still finds the expected reply to ponder on. A null time manager searches to the
+    // limits of the Builder alone. A position in the opening book is answered from the book at once.
+    public Move execute(final Board board,
+                        final TimeManager timeManager) {
+        stopPondering();
+        if (this.openingBook != null) {
+            final int bookMove = this.openingBook.getBookMove(SearchBoard.fromBoard(board), this.bookRandom);
+            if (bookMove != MoveCodec.NULL_MOVE) {
+                this.principalVariation = new int[] {bookMove};
+                return MoveCodec.decode(board, bookMove);
+            }
+        }
+        final long startTime = System.nanoTime();
+        startClock(startTime, timeManager);
+        if (!prepare(board)) {
+            return MoveFactory.getNullMove();
+        }
+        return MoveCodec.decode(board, search(startTime));
+    }
+
+    // The best lineCount moves with their scores and principal variations, best first, from the last
+    // completed iteration within the limits of the Builder. The listener, which may be null, gets the
+    // lines of every iteration as it completes, and the observers each line of it. The lines come from
+    // a single pass over the root, in which a move has to beat the last line to be searched in full.
+    public List<SearchInfo> analyze(final Board board,
+                                    final int lineCount,
+                                    final AnalysisListener listener) {
+        stopPondering();
+        startClock(System.nanoTime(), null);
+        if (!prepare(board)) {
+            return Collections.emptyList();
+        }
+        this.lineCount = Math.max(1, lineCount);
+        this.analysisListener = listener;
+        try {
+            search(System.nanoTime());
+        } finally {
+            this.lineCount = 1;
+            this.analysisListener = null;
+        }
+        return this.lines;
+    }
+
+    // Ends the running search from another thread; it returns what it has found so far.
+    public void stop() {
+        this.stopped = true;
+    }
+
+    // Thinks on the opponent's time. The board is the position after the move this search just played,
+    // and the expected reply is the next move of its principal variation; the search runs on the
+    // position after that reply in the background, to the depth and node limits but without a clock,
+    // until ponderHit or stopPondering. Returns the expected reply, or the null move when there is none
+    // and nothing is searched.
+    public Move ponder(final Board board) {
+        stopPondering();
+        final int[] principalVariation = this.principalVariation;
+        if (principalVariation.length < 2 ||
+                principalVariation[0] != MoveCodec.encode(board.getTransitionMove())) {
+            return MoveFactory.getNullMove();
+        }
+        final Move expectedReply = MoveCodec.decode(board, principalVariation[1]);
+        if (expectedReply == MoveFactory.getNullMove()) {
+            return expectedReply;
+        }
+        final Board ponderBoard = board.currentPlayer().makeMove(expectedReply).getToBoard();
+        this.timeManager = null;
+        this.deadline = NO_LIMIT;
+        this.pondering = true;
+        if (!prepare(ponderBoard)) {
+            this.pondering = false;
+            return MoveFactory.getNullMove();
+        }
+        this.ponderBoard = ponderBoard;
+        this.ponderStartTime = System.nanoTime();
+        this.ponderThread = new Thread(() -> this.ponderMove = search(this.ponderStartTime), "StockAlphaBeta-ponder");
+        this.ponderThread.setDaemon(true);
+        this.ponderThread.start();
+        return expectedReply;
+    }
+
+    // The opponent played the expected reply. The search carries on where it is, now on the clock, and
+    // returns the move to play. The time spent pondering counts towards the optimum but not the maximum,
+    // which runs from this moment, so a long ponder can end in an instant move; so does a forced one.
+    public Move ponderHit(final TimeManager timeManager) {
+        if (this.ponderThread == null) {
+            throw new IllegalStateException("Not pondering");
+        }
+        final long now = System.nanoTime();
+        startClock(now, timeManager);
+        this.clockStartTime = this.ponderStartTime;
+        if (this.workers[0].rootMoves().size() == 1 || (timeManager != null && this.principalVariation.length > 0 &&
+                timeManager.shouldStop((now - this.ponderStartTime) / 1_000_000))) {
+            this.stopped = true;
+        }
+        this.pondering = false;
+        joinPonderThread();
+        return MoveCodec.decode(this.ponderBoard, this.ponderMove);
+    }
+
+    // The opponent played another move, or the game is over. Whatever the ponder search stored in the
+    // transposition table stays there for the next search.
+    public void stopPondering() {
+        if (this.ponderThread != null) {
+            this.stopped = true;
+            joinPonderThread();
+        }
+        this.pondering = false;
+    }
+
+    public boolean isPondering() {
+        return this.ponderThread != null;
+    }
+
+    private void joinPonderThread() {
+        try {
+            this.ponderThread.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.ponderThread = null;
+    }
+
+    private void startClock(final long startTime,
+                            final TimeManager timeManager) {
+        final long limitMillis = timeManager == null ? this.timeLimitMillis :
+                Math.min(this.timeLimitMillis, timeManager.getMaximumMillis());
+        this.timeManager = timeManager;
+        this.clockStartTime = startTime;
+        this.deadline = limitMillis == NO_LIMIT ? NO_LIMIT : startTime + limitMillis * 1_000_000L;
+    }
+
+    // False when the side to move has no legal move, and there is nothing to search.
+    private boolean prepare(final Board board) {
+        this.stopped = false;
+        this.principalVariation = new int[0];
+        this.lines = Collections.emptyList();
+        this.iterationNodes = 0;
+        this.transpositionTable.newSearch();
+        for (final SearchWorker worker : this.workers) {
+            worker.reset(SearchBoard.fromBoard(board), MoveCodec.encode(board.getTransitionMove()));
+        }
+        return !this.workers[0].rootMoves().isEmpty();
+    }
+
+    // The packed best move.
+    private int search(final long startTime) {
+        final Thread[] helpers = new Thread[this.threadCount - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Thread(this.workers[i + 1], "StockAlphaBeta-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+        final int bestMove = this.workers[0].iterativeDeepening(startTime);
+        this.stopped = true;
+        for (final Thread helper : helpers) {
+            try {
+                helper.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return bestMove;
+    }
+
+    private void report(final int depth,
+                        final int[] lineScores,
+                        final int[][] principalVariations,
+                        final long startTime) {
+        // the counters of all threads are only summed here, once an iteration
+        final long nodes = getNumBoardsEvaluated();
+        final long elapsedNanos = System.nanoTime() - startTime;
+        final int selectiveDepth = getSelectiveDepth();
+        final double tableHitRate = getTableHitRate();
+        final double branchingFactor = this.iterationNodes == 0 ? 0 : (double) nodes / this.iterationNodes;
+        final double firstMoveCutoffRate = getFirstMoveCutoffRate();
+        this.iterationNodes = nodes;
+        final List<SearchInfo> lines = new ArrayList<>(lineScores.length);
+        for (int i = 0; i < lineScores.length; i++) {
+            lines.add(new SearchInfo(depth, i + 1, lineScores[i], selectiveDepth, nodes, elapsedNanos, tableHitRate,
+                    branchingFactor, firstMoveCutoffRate, principalVariations[i]));
+        }
+        this.principalVariation = principalVariations[0];
+        this.lines = Collections.unmodifiableList(lines);
+        for (final SearchInfo line : lines) {
+            setChanged();
+            notifyObservers(line);
+        }
+        if (this.analysisListener != null) {
+            this.analysisListener.linesUpdated(this.lines);
+        }
+    }
+
+    private void checkLimits() {
+        if ((this.nodeLimit != NO_LIMIT && getNumBoardsEvaluated() >= this.nodeLimit) ||
+                (this.deadline != NO_LIMIT && System.nanoTime() >= this.deadline)) {
+            this.stopped = true;
+        }
+    }
+
+    // The search state of one thread; everything here is touched by that thread only. Quiet moves are
+    // ordered by two killer moves per ply, the counter move to the move before and a butterfly history
+    // of from and to tiles per side, all learned from beta cutoffs. The history is halved every
+    // iteration and the killers move up two plies between searches, as the root does.
+    private final class SearchWorker implements Runnable {
+
+        private final int id;
+        private final MoveList[] moveLists;
+        private final int[][] moveScores;
+        private final int[][] pvTable;
+        private final int[] pvLength;
+        private final int[][] killerMoves;
+        private final int[] counterMoves;
+        private final int[][] history;
+        // the move that led to each ply, the game's last move for the root
+        private final int[] previousMoves;
+        // the lines of the root search under way, best first
+        private final int[] rootLineScores;
+        private final int[] rootLineMoves;
+        private final int[][] rootPrincipalVariations;
+        // scratch space for StaticExchange
+        private final int[] exchangeGains;
+        // pawn hash hits, counted by StandardBoardEvaluator into the first element
+        private final long[] pawnHashHits;
+        private SearchBoard board;
+        // the counters are read unsynchronized by the other threads for the node limit and the
+        // reports; approximate sums are enough
+        private long nodes;
+        private long cutoffs;
+        private long firstMoveCutoffs;
+        private long tableProbes;
+        private long tableHits;
+        private long pawnHashProbes;
+        // the deepest ply reached, quiescence included
+        private int selectiveDepth;
+
+        SearchWorker(final int id) {
+            this.id = id;
+            this.moveLists = new MoveList[MAX_SEARCH_PLY];
+            for (int i = 0; i < MAX_SEARCH_PLY; i++) {
+                this.moveLists[i] = new MoveList();
+            }
+            this.moveScores = new int[MAX_SEARCH_PLY][MoveList.MAX_MOVES];
+            this.pvTable = new int[MAX_SEARCH_PLY][MAX_SEARCH_PLY];
+            this.pvLength = new int[MAX_SEARCH_PLY];
+            this.killerMoves = new int[MAX_SEARCH_PLY][2];
+            this.counterMoves = new int[NUM_TILES * NUM_TILES];
+            this.history = new int[Alliance.values().length][NUM_TILES * NUM_TILES];
+            this.previousMoves = new int[MAX_SEARCH_PLY + 1];
+            this.rootLineScores = new int[MoveList.MAX_MOVES];
+            this.rootLineMoves = new int[MoveList.MAX_MOVES];
+            this.rootPrincipalVariations = new int[MoveList.MAX_MOVES][];
+            this.exchangeGains = new int[StaticExchange.MAX_EXCHANGES];
+            this.pawnHashHits = new long[1];
+        }
+
+        void reset(final SearchBoard board,
+                   final int previousMove) {
+            this.board = board;
+            this.nodes = 0;
+            this.cutoffs = 0;
+            this.firstMoveCutoffs = 0;
+            this.tableProbes = 0;
+            this.tableHits = 0;
+            this.pawnHashProbes = 0;
+            this.pawnHashHits[0] = 0;
+            this.selectiveDepth = 0;
+            this.previousMoves[0] = previousMove;
+            for (int ply = 0; ply < MAX_SEARCH_PLY; ply++) {
+                final int[] olderKillers = ply + 2 < MAX_SEARCH_PLY ? this.killerMoves[ply + 2] : null;
+                this.killerMoves[ply][0] = olderKillers != null ? olderKillers[0] : MoveCodec.NULL_MOVE;
+                this.killerMoves[ply][1] = olderKillers != null ? olderKillers[1] : MoveCodec.NULL_MOVE;
+            }
+            MoveGenerator.generateLegalMoves(board, this.moveLists[0]);
+        }
+
+        MoveList rootMoves() {
+            return this.moveLists[0];
+        }
+
+        @Override
+        public void run() {
+            iterativeDeepening(System.nanoTime());
+        }
+
+        // The best move of the last completed iteration. The main worker keeps the best lineCount moves of
+        // the root for a multi-PV search, with one aspiration window from the last line to the first.
+        int iterativeDeepening(final long startTime) {
+            final boolean isMainWorker = this.id == 0;
+            final int lineCount = isMainWorker ? Math.min(StockAlphaBeta.this.lineCount, rootMoves().size()) : 1;
+            final int[] lineScores = new int[lineCount];
+            final int[] lineMoves = new int[lineCount];
+            final int[][] principalVariations = new int[lineCount][];
+            lineMoves[0] = this.moveLists[0].get(0);
+            int bestMove = lineMoves[0];
+            for (int depth = 1 + (this.id & 1); depth <= searchDepth; depth++) {
+                ageHistory();
+                int window = ASPIRATION_WINDOW;
+                int alpha = depth >= MIN_ASPIRATION_DEPTH ? lineScores[lineCount - 1] - window : -INFINITY;
+                int beta = depth >= MIN_ASPIRATION_DEPTH ? lineScores[0] + window : INFINITY;
+                while (true) {
+                    final int exactLines = searchRoot(depth, alpha, beta, lineMoves, lineCount);
+                    if (stopped) {
+                        break;
+                    }
+                    if (this.rootLineScores[0] >= beta) {
+                        beta = Math.min(INFINITY, this.rootLineScores[0] + window);
+                    } else if (exactLines < lineCount) {
+                        alpha = Math.max(-INFINITY, this.rootLineScores[lineCount - 1] - window);
+                    } else {
+                        break;
+                    }
+                    window *= 2;
+                }
+                if (stopped) {
+                    break;
+                }
+                System.arraycopy(this.rootLineScores, 0, lineScores, 0, lineCount);
+                System.arraycopy(this.rootLineMoves, 0, lineMoves, 0, lineCount);
+                System.arraycopy(this.rootPrincipalVariations, 0, principalVariations, 0, lineCount);
+                bestMove = lineMoves[0];
+                if (isMainWorker) {
+                    report(depth, lineScores, principalVariations, startTime);
+                }
+                if (lineCount == 1 && MATE_SCORE - Math.abs(lineScores[0]) <= depth) {
+                    break;
+                }
+                final TimeManager clock = timeManager;
+                if (isMainWorker && !pondering && clock != null) {
+                    clock.iterationCompleted(bestMove);
+                    if (rootMoves().size() == 1 ||
+                            clock.shouldStop((System.nanoTime() - clockStartTime) / 1_000_000)) {
+                        break;
+                    }
+                }
+            }
+            return bestMove;
+        }
+
+        // Finds the best lineCount moves of the root, best first, and returns how many have an exact score.
+        // The lines of the last iteration are searched first with the full window. Every other move gets a
+        // null window at the score of the last line and is searched again only if it beats that line, so
+        // a multi-PV search costs about one search with a lower bound rather than one search per line.
+        private int searchRoot(final int depth,
+                               final int alpha,
+                               final int beta,
+                               final int[] previousLineMoves,
+                               final int lineCount) {
+            final MoveList moves = this.moveLists[0];
+            final int[] scores = this.moveScores[0];
+            scoreMoves(moves, scores, previousLineMoves[0], 0);
+            for (int line = 1; line < lineCount; line++) {
+                for (int i = 0; i < moves.size(); i++) {
+                    if (moves.get(i) == previousLineMoves[line]) {
+                        scores[i] = PV_MOVE_SCORE - line;
+                    }
+                }
+            }
+            int linesFound = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                final int move = pickNextMove(moves, scores, i);
+                final int bound = linesFound < lineCount ? alpha : Math.max(alpha, this.rootLineScores[lineCount - 1]);
+                this.board.makeMove(move);
+                this.previousMoves[1] = move;
+                int score;
+                if (i < lineCount) {
+                    score = -negamax(depth - 1, -beta, -bound, 1);
+                } else {
+                    score = -negamax(depth - 1, -bound - 1, -bound, 1);
+                    if (score > bound && score < beta) {
+                        score = -negamax(depth - 1, -beta, -bound, 1);
+                    }
+                }
+                this.board.unmakeMove();
+                if (stopped) {
+                    return 0;
+                }
+                if (linesFound < lineCount || score > this.rootLineScores[lineCount - 1]) {
+                    int[] principalVariation = null;
+                    if (score > bound) {
+                        updatePrincipalVariation(0, move);
+                        principalVariation = Arrays.copyOf(this.pvTable[0], this.pvLength[0]);
+                    }
+                    insertRootLine(Math.min(linesFound, lineCount - 1), score, move, principalVariation);
+                    linesFound = Math.min(linesFound + 1, lineCount);
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+            int exactLines = 0;
+            while (exactLines < linesFound && this.rootLineScores[exactLines] > alpha) {
+                exactLines++;
+            }
+            return exactLines;
+        }
+
+        // Puts the line in its place among those before the slot, moving the lower ones down. Ties keep
+        // the line searched first ahead.
+        private void insertRootLine(final int slot,
+                                    final int score,
+                                    final int move,
+                                    final int[] principalVariation) {
+            int j = slot;
+            while (j > 0 && this.rootLineScores[j - 1] < score) {
+                this.rootLineScores[j] = this.rootLineScores[j - 1];
+                this.rootLineMoves[j] = this.rootLineMoves[j - 1];
+                this.rootPrincipalVariations[j] = this.rootPrincipalVariations[j - 1];
+                j--;
+            }
+            this.rootLineScores[j] = score;
+            this.rootLineMoves[j] = move;
+            this.rootPrincipalVariations[j] = principalVariation;
+        }
+
+        private int evaluate(final SearchBoard board) {
+            if (evaluationCache == null) {
+                return evaluateLeaf(board);
+            }
+            int score = evaluationCache.probe(board.getZobristKey());
+            if (score == EvaluationCache.NO_ENTRY) {
+                score = evaluateLeaf(board);
+                evaluationCache.store(board.getZobristKey(), score);
+            }
+            return score;
+        }
+
+        private int evaluateLeaf(final SearchBoard board) {
+            if (pawnHashTable != null) {
+                this.pawnHashProbes++;
+            }
+            return evaluator.evaluate(board, pawnHashTable, this.pawnHashHits);
+        }
+
+        private int negamax(final int depth,
+                            int alpha,
+                            final int beta,
+                            final int ply) {
+            if ((++this.nodes & LIMIT_CHECK_MASK) == 0) {
+                checkLimits();
+            }
+            if (stopped) {
+                return 0;
+            }
+            final SearchBoard board = this.board;
+            this.pvLength[ply] = ply;
+            if (ply > this.selectiveDepth) {
+                this.selectiveDepth = ply;
+            }
+            if (depth <= 0) {
+                return quiescence(alpha, beta, ply);
+            }
+            if (ply >= MAX_SEARCH_PLY - 1) {
+                return evaluate(board);
+            }
+            final long entry = transpositionTable.probe(board.getZobristKey());
+            int hashMove = MoveCodec.NULL_MOVE;
+            this.tableProbes++;
+            if (entry != TranspositionTable.NO_ENTRY) {
+                this.tableHits++;
+                hashMove = TranspositionTable.getMove(entry);
+                // cut off on stored bounds outside the principal variation only, so the reported line stays whole
+                if (TranspositionTable.getDepth(entry) >= depth && beta - alpha == 1) {
+                    final int score = scoreFromTable(TranspositionTable.getScore(entry), ply);
+                    final int bound = TranspositionTable.getBound(entry);
+                    if (bound == TranspositionTable.EXACT ||
+                            (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                            (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+            final boolean inCheck = board.isInCheck();
+            boolean futile = false;
+            // selective pruning outside the principal variation and out of check only
+            if (beta - alpha == 1 && !inCheck) {
+                final int staticScore = evaluate(board);
+                final boolean nonMateWindow = Math.abs(beta) < MATE_SCORE - MAX_SEARCH_PLY;
+                if (reverseFutilityPruning && depth <= MAX_FUTILITY_DEPTH && nonMateWindow &&
+                        staticScore - FUTILITY_MARGIN * depth >= beta) {
+                    return staticScore - FUTILITY_MARGIN * depth;
+                }
+                // passing twice in a row proves nothing, and with only pawns left passing may be the better move
+                if (nullMovePruning && depth >= NULL_MOVE_MIN_DEPTH && staticScore >= beta && nonMateWindow &&
+                        this.previousMoves[ply] != MoveCodec.NULL_MOVE && board.hasNonPawnMaterial(board.getSideToMove())) {
+                    final int reduction = NULL_MOVE_REDUCTION + depth / NULL_MOVE_REDUCTION_DIVISOR;
+                    board.makeNullMove();
+                    this.previousMoves[ply + 1] = MoveCodec.NULL_MOVE;
+                    final int score = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1);
+                    board.unmakeNullMove();
+                    if (stopped) {
+                        return 0;
+                    }
+                    if (score >= beta) {
+                        return score >= MATE_SCORE - MAX_SEARCH_PLY ? beta : score;
+                    }
+                }
+                futile = futilityPruning && depth <= MAX_FUTILITY_DEPTH && nonMateWindow &&
+                        staticScore + FUTILITY_MARGIN * depth <= alpha;
+            }
+            final int originalAlpha = alpha;
+            final MoveList moves = this.moveLists[ply];
+            MoveGenerator.generateLegalMoves(board, moves);
+            if (moves.isEmpty()) {
+                return inCheck ? -MATE_SCORE + ply : 0;
+            }
+            final int[] scores = this.moveScores[ply];
+            scoreMoves(moves, scores, hashMove, ply);
+            int bestScore = -INFINITY;
+            int bestMove = MoveCodec.NULL_MOVE;
+            for (int i = 0; i < moves.size(); i++) {
+                final int move = pickNextMove(moves, scores, i);
+                final boolean isQuiet = !MoveCodec.isCapture(move) && !MoveCodec.isPromotion(move);
+                board.makeMove(move);
+                final boolean givesCheck = board.isInCheck();
+                // a quiet move cannot lift a position this far below alpha within the depth left
+                if (futile && i > 0 && isQuiet && !givesCheck) {
+                    board.unmakeMove();
+                    continue;
+                }
+                this.previousMoves[ply + 1] = move;
+                int score;
+                if (i == 0) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                } else {
+                    // late quiet moves are searched shallower first, and again at full depth if they beat alpha
+                    final int reduction = lateMoveReductions && isQuiet && !inCheck && !givesCheck &&
+                            depth >= LATE_MOVE_REDUCTION_MIN_DEPTH && i >= LATE_MOVE_REDUCTION_MIN_MOVES ?
+                            Math.min(LATE_MOVE_REDUCTIONS[depth][i], depth - 2) : 0;
+                    score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+                    if (reduction > 0 && score > alpha) {
+                        score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+                    }
+                    if (score > alpha && score < beta) {
+                        score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                    }
+                }
+                board.unmakeMove();
+                if (stopped) {
+                    return 0;
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = move;
+                    if (score > alpha) {
+                        alpha = score;
+                        updatePrincipalVariation(ply, move);
+                        if (alpha >= beta) {
+                            recordCutoff(move, i, depth, ply);
+                            break;
+                        }
+                    }
+                }
+            }
+            final int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND :
+                    bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+            transpositionTable.store(board.getZobristKey(), bestMove, scoreToTable(bestScore, ply), depth, bound);
+            return bestScore;
+        }
+
+        // Captures and promotions only, until the position is quiet. The side to move may stand pat on
+        // the static evaluation instead, unless it is in check, when every evasion is searched. Captures
+        // that lose material by static exchange are sorted last and never searched.
+        private int quiescence(int alpha,
+                               final int beta,
+                               final int ply) {
+            if ((++this.nodes & LIMIT_CHECK_MASK) == 0) {
+                checkLimits();
+            }
+            if (stopped) {
+                return 0;
+            }
+            final SearchBoard board = this.board;
+            this.pvLength[ply] = ply;
+            if (ply > this.selectiveDepth) {
+                this.selectiveDepth = ply;
+            }
+            if (ply >= MAX_SEARCH_PLY - 1) {
+                return evaluate(board);
+            }
+            final boolean inCheck = board.isInCheck();
+            final MoveList moves = this.moveLists[ply];
+            int bestScore;
+            if (inCheck) {
+                MoveGenerator.generateLegalMoves(board, moves);
+                if (moves.isEmpty()) {
+                    return -MATE_SCORE + ply;
+                }
+                bestScore = -INFINITY;
+            } else {
+                bestScore = evaluate(board);
+                if (bestScore >= beta) {
+                    return bestScore;
+                }
+                alpha = Math.max(alpha, bestScore);
+                MoveGenerator.generateLegalCaptures(board, moves);
+            }
+            final int[] scores = this.moveScores[ply];
+            scoreMoves(moves, scores, MoveCodec.NULL_MOVE, ply);
+            for (int i = 0; i < moves.size(); i++) {
+                final int move = pickNextMove(moves, scores, i);
+                if (!inCheck && scores[i] < 0) {
+                    break;
+                }
+                board.makeMove(move);
+                this.previousMoves[ply + 1] = move;
+                final int score = -quiescence(-beta, -alpha, ply + 1);
+                board.unmakeMove();
+                if (stopped) {
+                    return 0;
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    if (score > alpha) {
+                        alpha = score;
+                        if (alpha >= beta) {
+                            break;
+                        }
+                    }
+                }
+            }
+            return bestScore;
+        }
+
+        // The previous best or hash move first, then captures and promotions by BoardUtils.mvvlva, the
+        // killer moves, the counter move and the other quiet moves by history, and last the captures and
+        // promotions that lose material by static exchange, with a negative score.
+        private void scoreMoves(final MoveList moves,
+                                final int[] scores,
+                                final int bestMove,
+                                final int ply) {
+            final SearchBoard board = this.board;
+            final int[] plyKillerMoves = this.killerMoves[ply];
+            final int previousMove = this.previousMoves[ply];
+            final int counterMove = previousMove == MoveCodec.NULL_MOVE ? MoveCodec.NULL_MOVE :
+                    this.counterMoves[butterflyIndex(previousMove)];
+            final int[] sideHistory = this.history[board.getSideToMove().ordinal()];
+            for (int i = 0; i < moves.size(); i++) {
+                final int move = moves.get(i);
+                if (move == bestMove) {
+                    scores[i] = PV_MOVE_SCORE;
+                    continue;
+                }
+                final PieceType movingPieceType = PIECE_TYPES[board.getPieceIndex(MoveCodec.getFrom(move)) % NUM_PIECE_TYPES];
+                final PieceType attackedPieceType;
+                if (MoveCodec.getFlag(move) == MoveCodec.EN_PASSANT) {
+                    attackedPieceType = PieceType.PAWN;
+                } else if (MoveCodec.isCapture(move)) {
+                    attackedPieceType = PIECE_TYPES[board.getPieceIndex(MoveCodec.getTo(move)) % NUM_PIECE_TYPES];
+                } else {
+                    attackedPieceType = null;
+                }
+                if (attackedPieceType != null || MoveCodec.isPromotion(move)) {
+                    final int exchange = StaticExchange.evaluate(board, move, this.exchangeGains);
+                    scores[i] = exchange < 0 ? exchange : GOOD_CAPTURE_SCORE + BoardUtils.mvvlva(movingPieceType, attackedPieceType);
+                } else if (!orderingHeuristics) {
+                    scores[i] = BoardUtils.mvvlva(movingPieceType, null);
+                } else if (move == plyKillerMoves[0]) {
+                    scores[i] = KILLER_MOVE_SCORE;
+                } else if (move == plyKillerMoves[1]) {
+                    scores[i] = KILLER_MOVE_SCORE - 1;
+                } else if (move == counterMove) {
+                    scores[i] = COUNTER_MOVE_SCORE;
+                } else {
+                    scores[i] = sideHistory[butterflyIndex(move)];
+                }
+            }
+        }
+
+        // Called after the move is unmade, so the side to move is the side that played it.
+        private void recordCutoff(final int move,
+                                  final int moveNumber,
+                                  final int depth,
+                                  final int ply) {
+            this.cutoffs++;
+            if (moveNumber == 0) {
+                this.firstMoveCutoffs++;
+            }
+            if (!orderingHeuristics || MoveCodec.isCapture(move) || MoveCodec.isPromotion(move)) {
+                return;
+            }
+            final int[] plyKillerMoves = this.killerMoves[ply];
+            if (plyKillerMoves[0] != move) {
+                plyKillerMoves[1] = plyKillerMoves[0];
+                plyKillerMoves[0] = move;
+            }
+            final int previousMove = this.previousMoves[ply];
+            if (previousMove != MoveCodec.NULL_MOVE) {
+                this.counterMoves[butterflyIndex(previousMove)] = move;
+            }
+            final int[] sideHistory = this.history[this.board.getSideToMove().ordinal()];
+            final int index = butterflyIndex(move);
+            sideHistory[index] = Math.min(sideHistory[index] + depth * depth, MAX_HISTORY_SCORE);
+        }
+
+        private void ageHistory() {
+            for (final int[] sideHistory : this.history) {
+                for (int i = 0; i < sideHistory.length; i++) {
+                    sideHistory[i] >>= 1;
+                }
+            }
+        }
+
+        private void updatePrincipalVariation(final int ply,
+                                              final int move) {
+            this.pvTable[ply][ply] = move;
+            for (int i = ply + 1; i < this.pvLength[ply + 1]; i++) {
+                this.pvTable[ply][i] = this.pvTable[ply + 1][i];
+            }
+            this.pvLength[ply] = Math.max(this.pvLength[ply + 1], ply + 1);
+        }
+
+    }
+
+    // Mate scores count plies from the root; the table stores them counted from the node instead.
+    private static int scoreToTable(final int score,
+                                    final int ply) {
+        if (score >= MATE_SCORE - MAX_SEARCH_PLY) {
+            return score + ply;
+        }
+        return score <= -MATE_SCORE + MAX_SEARCH_PLY ? score - ply : score;
+    }
+
+    private static int scoreFromTable(final int score,
+                                      final int ply) {
+        if (score >= MATE_SCORE - MAX_SEARCH_PLY) {
+            return score - ply;
+        }
+        return score <= -MATE_SCORE + MAX_SEARCH_PLY ? score + ply : score;
+    }
+
+    private static int[][] initLateMoveReductions() {
+        final int[][] reductions = new int[MAX_SEARCH_PLY][MoveList.MAX_MOVES];
+        for (int depth = 1; depth < MAX_SEARCH_PLY; depth++) {
+            for (int moveNumber = 1; moveNumber < MoveList.MAX_MOVES; moveNumber++) {
+                reductions[depth][moveNumber] = (int) (0.75 + Math.log(depth) * Math.log(moveNumber) / 2.25);
+            }
+        }
+        return reductions;
+    }
+
+    private static int butterflyIndex(final int move) {
+        return MoveCodec.getFrom(move) * NUM_TILES + MoveCodec.getTo(move);
+    }
+
+    // Selection sort, one step at a time: most nodes cut off after the first few moves.
+    private static int pickNextMove(final MoveList moves,
+                                    final int[] scores,
+                                    final int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            final int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+        return moves.get(index);
+    }
+
+    public static class Builder {
+
+        int searchDepth;
+        long timeLimitMillis;
+        long nodeLimit;
+        int hashSizeInMegabytes;
+        TranspositionTable transpositionTable;
+        int pawnHashSizeInEntries;
+        PawnHashTable pawnHashTable;
+        int evaluationCacheSizeInEntries;
+        EvaluationCache evaluationCache;
+        OpeningBook openingBook;
+        int threadCount;
+        boolean orderingHeuristics;
+        boolean nullMovePruning;
+        boolean lateMoveReductions;
+        boolean reverseFutilityPruning;
+        boolean futilityPruning;
+
+        public Builder() {
+            this.searchDepth = MAX_SEARCH_PLY - 1;
+            this.timeLimitMillis = NO_LIMIT;
+            this.nodeLimit = NO_LIMIT;
+            this.hashSizeInMegabytes = DEFAULT_HASH_SIZE_IN_MEGABYTES;
+            this.pawnHashSizeInEntries = PawnHashTable.DEFAULT_SIZE_IN_ENTRIES;
+            this.evaluationCacheSizeInEntries = 0;
+            this.threadCount = 1;
+            this.orderingHeuristics = true;
+            this.nullMovePruning = true;
+            this.lateMoveReductions = true;
+            this.reverseFutilityPruning = true;
+            this.futilityPruning = true;
+        }
+
+        public Builder setSearchDepth(final int searchDepth) {
+            this.searchDepth = searchDepth;
+            return this;
+        }
+
+        public Builder setTimeLimitMillis(final long timeLimitMillis) {
+            this.timeLimitMillis = timeLimitMillis;
+            return this;
+        }
+
+        public Builder setNodeLimit(final long nodeLimit) {
+            this.nodeLimit = nodeLimit;
+            return this;
+        }
+
+        public Builder setHashSizeInMegabytes(final int hashSizeInMegabytes) {
+            this.hashSizeInMegabytes = hashSizeInMegabytes;
+            return this;
+        }
+
+        // Share one table between searches, for example across the games of a batch run.
+        public Builder setTranspositionTable(final TranspositionTable transpositionTable) {
+            this.transpositionTable = transpositionTable;
+            return this;
+        }
+
+        // 0 turns the pawn hash table off.
+        public Builder setPawnHashSizeInEntries(final int pawnHashSizeInEntries) {
+            this.pawnHashSizeInEntries = pawnHashSizeInEntries;
+            return this;
+        }
+
+        public Builder setPawnHashTable(final PawnHashTable pawnHashTable) {
+            this.pawnHashTable = pawnHashTable;
+            return this;
+        }
+
+        // Off (0) by default: with the material and placement kept incrementally and the pawns hashed, a
+        // leaf is evaluated faster than a cache line comes in from memory. EvaluationCacheBenchmark measures it.
+        public Builder setEvaluationCacheSizeInEntries(final int evaluationCacheSizeInEntries) {
+            this.evaluationCacheSizeInEntries = evaluationCacheSizeInEntries;
+            return this;
+        }
+
+        // Share one cache between searches, so that the positions of one move are not evaluated again for the next.
+        public Builder setEvaluationCache(final EvaluationCache evaluationCache) {
+            this.evaluationCache = evaluationCache;
+            return this;
+        }
+
+        // While the position is in the book, execute plays a weighted random book move without searching.
+        public Builder setOpeningBook(final OpeningBook openingBook) {
+            this.openingBook = openingBook;
+            return this;
+        }
+
+        // 1 (the default) searches deterministically on the calling thread.
+        public Builder setThreadCount(final int threadCount) {
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        // Killer moves, counter moves and history; without them quiet moves keep BoardUtils.mvvlva order.
+        public Builder setOrderingHeuristics(final boolean orderingHeuristics) {
+            this.orderingHeuristics = orderingHeuristics;
+            return this;
+        }
+
+        public Builder setNullMovePruning(final boolean nullMovePruning) {
+            this.nullMovePruning = nullMovePruning;
+            return this;
+        }
+
+        public Builder setLateMoveReductions(final boolean lateMoveReductions) {
+            this.lateMoveReductions = lateMoveReductions;
+            return this;
+        }
+
+        public Builder setReverseFutilityPruning(final boolean reverseFutilityPruning) {
+            this.reverseFutilityPruning = reverseFutilityPruning;
+            return this;
+        }
+
+        public Builder setFutilityPruning(final boolean futilityPruning) {
+            this.futilityPruning = futilityPruning;
+            return this;
+        }
+
+        // Turns null move pruning, late move reductions and both futility prunings on or off at once.
+        public Builder setSelectiveSearch(final boolean selectiveSearch) {
+            return setNullMovePruning(selectiveSearch)
+                    .setLateMoveReductions(selectiveSearch)
+                    .setReverseFutilityPruning(selectiveSearch)
+                    .setFutilityPruning(selectiveSearch);
+        }
+
+        public StockAlphaBeta build() {
+            return new StockAlphaBeta(this);
+        }
+
+    }
+
+}
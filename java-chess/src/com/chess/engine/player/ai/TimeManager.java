@@ -0,0 +1,79 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.MoveCodec;
+
+// How long one move may take, from the time left on the clock, the increment and the moves to go until
+// the next time control. The optimum time is the share of the clock one move should use; the maximum
+// is a hard cap that the search never passes, kept well inside the clock so a slow move cannot lose on
+// time. Between iterations the search asks whether to go on: when the best move keeps changing the
+// optimum stretches, up to MAX_INSTABILITY times, and when it settles the search stops early, as the
+// next iteration would take longer than all the ones before it.
+public final class TimeManager {
+
+    public static final int DEFAULT_MOVES_TO_GO = 30;
+    public static final long DEFAULT_MOVE_OVERHEAD_MILLIS = 50;
+
+    // the part of the clock a single move may ever take
+    private static final double MAX_CLOCK_FRACTION = 0.8;
+    // the maximum as a multiple of the optimum
+    private static final int MAX_OPTIMUM_FACTOR = 5;
+    private static final double MAX_INSTABILITY = 2.5;
+    // an iteration takes about as long as all the ones before it, so none starts past this part of the budget
+    private static final double NEXT_ITERATION_FRACTION = 0.5;
+
+    private final long optimumMillis;
+    private final long maximumMillis;
+    private int previousBestMove;
+    private double bestMoveChanges;
+
+    // A sudden death clock, or one with an increment.
+    public TimeManager(final long remainingMillis,
+                       final long incrementMillis) {
+        this(remainingMillis, incrementMillis, 0, DEFAULT_MOVE_OVERHEAD_MILLIS);
+    }
+
+    // movesToGo is 0 when no time control follows; the overhead is spent outside the search on every
+    // move, passing the move to the board and to the opponent.
+    public TimeManager(final long remainingMillis,
+                       final long incrementMillis,
+                       final int movesToGo,
+                       final long moveOverheadMillis) {
+        final long available = Math.max(1, remainingMillis - moveOverheadMillis);
+        final int horizon = movesToGo > 0 ? Math.min(movesToGo, DEFAULT_MOVES_TO_GO) : DEFAULT_MOVES_TO_GO;
+        final long optimum = available / horizon + incrementMillis;
+        this.maximumMillis = Math.max(1, Math.min((long) (available * MAX_CLOCK_FRACTION),
+                optimum * MAX_OPTIMUM_FACTOR));
+        this.optimumMillis = Math.max(1, Math.min(optimum, this.maximumMillis));
+        this.previousBestMove = MoveCodec.NULL_MOVE;
+        this.bestMoveChanges = 0;
+    }
+
+    public long getOptimumMillis() {
+        return this.optimumMillis;
+    }
+
+    public long getMaximumMillis() {
+        return this.maximumMillis;
+    }
+
+    // Called with the best move of every completed iteration. Changes count less the older they are.
+    void iterationCompleted(final int bestMove) {
+        this.bestMoveChanges /= 2;
+        if (this.previousBestMove != MoveCodec.NULL_MOVE && bestMove != this.previousBestMove) {
+            this.bestMoveChanges += 1;
+        }
+        this.previousBestMove = bestMove;
+    }
+
+    // Whether the search should play the move it has rather than start another iteration.
+    boolean shouldStop(final long elapsedMillis) {
+        final double instability = Math.min(MAX_INSTABILITY, 1 + this.bestMoveChanges);
+        return elapsedMillis >= this.optimumMillis * instability * NEXT_ITERATION_FRACTION;
+    }
+
+    @Override
+    public String toString() {
+        return "optimum " + this.optimumMillis + " ms, maximum " + this.maximumMillis + " ms";
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+// A fixed-size hash of search results shared by any number of search threads without locks.
+// Buckets hold two entries: the first keeps the deepest result of the current search, the second
+// always takes the newest. Every entry is two longs, the packed data and the key XOR the data, so a
+// write torn by a racing thread fails the key check on probe and reads as a miss.
+public final class TranspositionTable {
+
+    public static final long NO_ENTRY = 0L;
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int ENTRIES_PER_BUCKET = 2;
+    private static final int BYTES_PER_BUCKET = LONGS_PER_ENTRY * ENTRIES_PER_BUCKET * Long.BYTES;
+    private static final int MOVE_BITS = 16;
+    private static final int BOUND_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 18;
+    private static final int GENERATION_SHIFT = 26;
+    private static final int SCORE_SHIFT = 34;
+    private static final int BYTE_MASK = 0xFF;
+
+    private final long[] table;
+    private final int bucketMask;
+    private final int sizeInMegabytes;
+    private volatile int generation;
+
+    public TranspositionTable(final int sizeInMegabytes) {
+        final long buckets = Long.highestOneBit(Math.max(1L, (long) sizeInMegabytes * 1024 * 1024 / BYTES_PER_BUCKET));
+        final int bucketCount = (int) Math.min(buckets, 1 << 27);
+        this.table = new long[bucketCount * ENTRIES_PER_BUCKET * LONGS_PER_ENTRY];
+        this.bucketMask = bucketCount - 1;
+        this.sizeInMegabytes = sizeInMegabytes;
+    }
+
+    // The packed entry stored for the key, or NO_ENTRY. Unpack it with the static getters.
+    public long probe(final long zobristKey) {
+        final int bucket = bucketIndex(zobristKey);
+        for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+            final int index = bucket + i * LONGS_PER_ENTRY;
+            final long data = this.table[index + 1];
+            if (data != NO_ENTRY && (this.table[index] ^ data) == zobristKey) {
+                return data;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    public void store(final long zobristKey,
+                      final int move,
+                      final int score,
+                      final int depth,
+                      final int bound) {
+        final int bucket = bucketIndex(zobristKey);
+        final long data = pack(move, score, depth, bound, this.generation);
+        final long preferred = this.table[bucket + 1];
+        if (preferred == NO_ENTRY ||
+                (this.table[bucket] ^ preferred) == zobristKey ||
+                getGeneration(preferred) != (this.generation & BYTE_MASK) ||
+                depth >= getDepth(preferred)) {
+            write(bucket, zobristKey, data);
+        } else {
+            write(bucket + LONGS_PER_ENTRY, zobristKey, data);
+        }
+    }
+
+    // Call before each search so that entries of earlier searches are replaced first.
+    public void newSearch() {
+        this.generation++;
+    }
+
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+    }
+
+    public int getSizeInMegabytes() {
+        return this.sizeInMegabytes;
+    }
+
+    // Permille of the first thousand buckets holding an entry of the current search.
+    public int getHashFull() {
+        final int sample = Math.min(1000, this.bucketMask + 1);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            final long data = this.table[i * ENTRIES_PER_BUCKET * LONGS_PER_ENTRY + 1];
+            if (data != NO_ENTRY && getGeneration(data) == (this.generation & BYTE_MASK)) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public static int getMove(final long entry) {
+        return (int) (entry & ((1 << MOVE_BITS) - 1));
+    }
+
+    public static int getBound(final long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 3;
+    }
+
+    public static int getDepth(final long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & BYTE_MASK;
+    }
+
+    public static int getScore(final long entry) {
+        return (int) (entry >> SCORE_SHIFT);
+    }
+
+    private static int getGeneration(final long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & BYTE_MASK;
+    }
+
+    private static long pack(final int move,
+                             final int score,
+                             final int depth,
+                             final int bound,
+                             final int generation) {
+        return (move & ((1L << MOVE_BITS) - 1)) |
+                ((long) bound << BOUND_SHIFT) |
+                ((long) (Math.max(0, depth) & BYTE_MASK) << DEPTH_SHIFT) |
+                ((long) (generation & BYTE_MASK) << GENERATION_SHIFT) |
+                ((long) score << SCORE_SHIFT);
+    }
+
+    private void write(final int index,
+                       final long zobristKey,
+                       final long data) {
+        this.table[index] = zobristKey ^ data;
+        this.table[index + 1] = data;
+    }
+
+    private int bucketIndex(final long zobristKey) {
+        return ((int) zobristKey & this.bucketMask) * ENTRIES_PER_BUCKET * LONGS_PER_ENTRY;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.chess.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.util.Locale;
+import java.util.Observable;
+import java.util.Observer;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.DefaultTableModel;
+
+import com.chess.engine.board.MoveCodec;
+import com.chess.engine.player.ai.SearchInfo;
+
+// One row per iteration of the running search, or per line of a multi-PV search, as the search
+// reports them. Observe a StockAlphaBeta with it; the rows are added on the event dispatch thread.
+class DebugPanel extends JPanel implements Observer {
+
+    private static final long serialVersionUID = 1L;
+    private static final Dimension DEBUG_PANEL_DIMENSION = new Dimension(600, 150);
+    private static final String[] COLUMNS = {
+            "Depth", "Sel", "Line", "Score", "Nodes", "NPS", "Hash %", "EBF", "FMC %", "PV"
+    };
+
+    private final DefaultTableModel model;
+    private int lastDepth;
+    private int lastRank;
+
+    DebugPanel() {
+        super(new BorderLayout());
+        this.model = new DefaultTableModel(COLUMNS, 0) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean isCellEditable(final int row,
+                                          final int column) {
+                return false;
+            }
+        };
+        final JTable table = new JTable(this.model);
+        table.getColumnModel().getColumn(COLUMNS.length - 1).setPreferredWidth(250);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        setPreferredSize(DEBUG_PANEL_DIMENSION);
+        validate();
+        setVisible(true);
+    }
+
+    public void redo() {
+        this.model.setRowCount(0);
+        this.lastDepth = 0;
+        this.lastRank = 0;
+        validate();
+    }
+
+    @Override
+    public void update(final Observable search,
+                       final Object info) {
+        if (info instanceof SearchInfo) {
+            SwingUtilities.invokeLater(() -> addRow((SearchInfo) info));
+        }
+    }
+
+    private void addRow(final SearchInfo info) {
+        // a search starts again from the shallowest depth
+        if (info.getDepth() < this.lastDepth || (info.getDepth() == this.lastDepth && info.getRank() <= this.lastRank)) {
+            this.model.setRowCount(0);
+        }
+        this.lastDepth = info.getDepth();
+        this.lastRank = info.getRank();
+        final StringBuilder principalVariation = new StringBuilder();
+        for (final int move : info.getPrincipalVariation()) {
+            principalVariation.append(MoveCodec.toString(move)).append(' ');
+        }
+        this.model.addRow(new Object[] {
+                info.getDepth(),
+                info.getSelectiveDepth(),
+                info.getRank(),
+                info.isMateScore() ? "#" + info.getMateInMoves() : String.valueOf(info.getScore()),
+                info.getNodes(),
+                info.getNodesPerSecond(),
+                String.format(Locale.ROOT, "%.1f", 100 * info.getTableHitRate()),
+                String.format(Locale.ROOT, "%.2f", info.getBranchingFactor()),
+                String.format(Locale.ROOT, "%.1f", 100 * info.getFirstMoveCutoffRate()),
+                principalVariation.toString().trim()
+        });
+    }
+
+}
@@ -1,7 +1,5 @@
 package com.chess.gui;
 
-import com.chess.engine.board.Board;
-
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,9 +9,12 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.table.DefaultTableModel;
 
-import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveCodec;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
 import com.chess.gui.Table.MoveLog;
+import com.chess.pgn.SANUtilities;
 
 public class GameHistoryPanel extends JPanel {
 
@@ -33,46 +34,35 @@ public class GameHistoryPanel extends JPanel {
         this.setVisible(true);
     }
 
-    void redo(final Board board,
-              final MoveLog moveHistory) {
+    // The moves are written in SAN from a replay of the log on a SearchBoard, check and mate included.
+    void redo(final MoveLog moveHistory) {
 
         int currentRow = 0;
         this.model.clear();
-        for(final Move move: moveHistory.getMoves()) {
-            final String moveText = move.toString();
+        final List<Move> moves = moveHistory.getMoves();
+        if(moves.isEmpty()) {
+            return;
+        }
+        SearchBoard searchBoard = SearchBoard.fromBoard(moves.get(0).getBoard());
+        final MoveList legalMoves = new MoveList();
+        final StringBuilder moveText = new StringBuilder(8);
+        for(final Move move: moves) {
+            if(searchBoard.getPly() == SearchBoard.MAX_PLY - 1) {
+                searchBoard = SearchBoard.fromBoard(move.getBoard());
+            }
+            moveText.setLength(0);
+            SANUtilities.appendSAN(searchBoard, MoveCodec.encode(move), moveText, legalMoves);
             if(move.getMovedPiece().getPieceAlliance().isWhite()) {
-                this.model.setValueAt(moveText, currentRow, 0);
+                this.model.setValueAt(moveText.toString(), currentRow, 0);
             } else if(move.getMovedPiece().getPieceAlliance().isBlack()) {
-                this.model.setValueAt(moveText, currentRow, 1);
+                this.model.setValueAt(moveText.toString(), currentRow, 1);
                 currentRow++;
             }
         }
 
-        if(moveHistory.getMoves().size() > 0) {
-            final Move lastMove = moveHistory.getMoves().get(moveHistory.size() - 1);
-            final String moveText = lastMove.toString();
-
-            if (lastMove.getMovedPiece().getPieceAlliance().isWhite()) {
-                this.model.setValueAt(moveText + calculateCheckAndCheckmateHash(board), currentRow, 0);
-            }
-            else if (lastMove.getMovedPiece().getPieceAlliance().isBlack()) {
-                this.model.setValueAt(moveText + calculateCheckAndCheckmateHash(board), currentRow - 1, 1);
-            }
-
-            final JScrollBar vertical = scrollPane.getVerticalScrollBar();
-            vertical.setValue(vertical.getMaximum());
+        final JScrollBar vertical = scrollPane.getVerticalScrollBar();
+        vertical.setValue(vertical.getMaximum());
 
-        }
-
-    }
-
-    private String calculateCheckAndCheckmateHash(final Board board) {
-        if(board.currentPlayer().isInCheckMate()) {
-            return "#";
-        } else if(board.currentPlayer().isInCheck()) {
-            return "+";
-        }
-        return "";
     }
 
     private static class Row {
@@ -5,11 +5,13 @@ import com.chess.engine.board.Move.MoveFactory;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.MoveTransition;
 import com.chess.engine.player.Player;
+import com.chess.engine.player.ai.OpeningBook;
 /*import com.chess.engine.player.ai.StandardBoardEvaluator;
 import com.chess.engine.player.ai.StockAlphaBeta;
-import com.chess.pgn.FenUtilities;
-import com.chess.pgn.MySqlGamePersistence;
-*/import com.google.common.collect.Lists;
+*/import com.chess.pgn.FenUtilities;
+import com.chess.pgn.PGNGame;
+import com.chess.pgn.PGNReader;
+import com.google.common.collect.Lists;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -23,7 +25,7 @@ import java.util.*;
 import java.util.List;
 
 //import static com.chess.pgn.PGNUtilities.persistPGNFile;
-//import static com.chess.pgn.PGNUtilities.writeGameToPGNFile;
+import static com.chess.pgn.PGNUtilities.writeGameToPGNFile;
 import static javax.swing.JFrame.setDefaultLookAndFeelDecorated;
 import static javax.swing.SwingUtilities.*;
 
@@ -32,7 +34,7 @@ public final class Table extends Observable {
     private final JFrame gameFrame;
     private final GameHistoryPanel gameHistoryPanel;
     private final TakenPiecesPanel takenPiecesPanel;
-    //private final DebugPanel debugPanel;
+    private final DebugPanel debugPanel;
     private Board chessBoard;
     private final BoardPanel boardPanel;
     private final MoveLog moveLog;
@@ -44,6 +46,7 @@ public final class Table extends Observable {
     private String pieceIconPath;
     private boolean highlightLegalMoves;
     private boolean useBook;
+    private OpeningBook openingBook;
     private Color lightTileColor = Color.decode("#FFFACD");
     private Color darkTileColor = Color.decode("#593E1A");
 
@@ -65,7 +68,7 @@ public final class Table extends Observable {
         this.useBook = false;
         this.pieceIconPath = "art/pieces/chesscom/";
         this.gameHistoryPanel = new GameHistoryPanel();
-        //this.debugPanel = new DebugPanel();
+        this.debugPanel = new DebugPanel();
         this.takenPiecesPanel = new TakenPiecesPanel();
         this.boardPanel = new BoardPanel();
         this.moveLog = new MoveLog();
@@ -74,7 +77,6 @@ public final class Table extends Observable {
         this.gameFrame.add(this.takenPiecesPanel, BorderLayout.WEST);
         this.gameFrame.add(this.boardPanel, BorderLayout.CENTER);
         this.gameFrame.add(this.gameHistoryPanel, BorderLayout.EAST);
-        //this.gameFrame.add(debugPanel, BorderLayout.SOUTH);
         setDefaultLookAndFeelDecorated(true);
         this.gameFrame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
         this.gameFrame.setSize(OUTER_FRAME_DIMENSION);
@@ -110,11 +112,11 @@ public final class Table extends Observable {
         return this.takenPiecesPanel;
     }
 
-    /*private DebugPanel getDebugPanel() {
+    private DebugPanel getDebugPanel() {
         return this.debugPanel;
     }
 
-    private GameSetup getGameSetup() {
+    /*private GameSetup getGameSetup() {
         return this.gameSetup;
     }*/
 
@@ -128,10 +130,10 @@ public final class Table extends Observable {
 
     public void show() {
         Table.get().getMoveLog().clear();
-        Table.get().getGameHistoryPanel().redo(chessBoard, Table.get().getMoveLog());
+        Table.get().getGameHistoryPanel().redo(Table.get().getMoveLog());
         Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
         Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
-        //Table.get().getDebugPanel().redo();
+        Table.get().getDebugPanel().redo();
     }
 
     private void populateMenuBar(final JMenuBar tableMenuBar) {
@@ -153,7 +155,7 @@ public final class Table extends Observable {
         final JMenu filesMenu = new JMenu("File");
         filesMenu.setMnemonic(KeyEvent.VK_F);
 
-        /*final JMenuItem openPGN = new JMenuItem("Load PGN File", KeyEvent.VK_O);
+        final JMenuItem openPGN = new JMenuItem("Load PGN File", KeyEvent.VK_O);
         openPGN.addActionListener(e -> {
             JFileChooser chooser = new JFileChooser();
             int option = chooser.showOpenDialog(Table.get().getGameFrame());
@@ -163,17 +165,6 @@ public final class Table extends Observable {
         });
         filesMenu.add(openPGN);
 
-        final JMenuItem openFEN = new JMenuItem("Load FEN File", KeyEvent.VK_F);
-        openFEN.addActionListener(e -> {
-            String fenString = JOptionPane.showInputDialog("Input FEN");
-            if(fenString != null) {
-                undoAllMoves();
-                chessBoard = FenUtilities.createGameFromFEN(fenString);
-                Table.get().getBoardPanel().drawBoard(chessBoard);
-            }
-        });
-        filesMenu.add(openFEN);
-
         final JMenuItem saveToPGN = new JMenuItem("Save Game", KeyEvent.VK_S);
         saveToPGN.addActionListener(e -> {
             final JFileChooser chooser = new JFileChooser();
@@ -192,7 +183,31 @@ public final class Table extends Observable {
                 savePGNFile(chooser.getSelectedFile());
             }
         });
-        filesMenu.add(saveToPGN);*/
+        filesMenu.add(saveToPGN);
+
+        final JMenuItem openFEN = new JMenuItem("Load FEN File", KeyEvent.VK_F);
+        openFEN.addActionListener(e -> {
+            String fenString = JOptionPane.showInputDialog("Input FEN");
+            if(fenString != null) {
+                final Board fenBoard;
+                try {
+                    fenBoard = FenUtilities.createGameFromFEN(fenString);
+                } catch (final IllegalArgumentException ex) {
+                    JOptionPane.showMessageDialog(Table.get().getGameFrame(), ex.getMessage(), "Load FEN",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                undoAllMoves();
+                chessBoard = fenBoard;
+                Table.get().getBoardPanel().drawBoard(chessBoard);
+            }
+        });
+        filesMenu.add(openFEN);
+
+        final JMenuItem copyFEN = new JMenuItem("Copy FEN", KeyEvent.VK_C);
+        copyFEN.addActionListener(e -> JOptionPane.showInputDialog(Table.get().getGameFrame(), "FEN",
+                FenUtilities.createFENFromGame(chessBoard)));
+        filesMenu.add(copyFEN);
 
         final JMenuItem exitMenuItem = new JMenuItem("Exit", KeyEvent.VK_X);
         exitMenuItem.addActionListener(e -> {
@@ -365,10 +380,39 @@ public final class Table extends Observable {
         final JCheckBoxMenuItem cbUseBookMoves = new JCheckBoxMenuItem(
                 "Use Book Moves", false);
 
-        cbUseBookMoves.addActionListener(e -> useBook = cbUseBookMoves.isSelected());
+        cbUseBookMoves.addActionListener(e -> {
+            if (cbUseBookMoves.isSelected() && openingBook == null) {
+                final JFileChooser chooser = new JFileChooser();
+                if (chooser.showOpenDialog(Table.get().getGameFrame()) == JFileChooser.APPROVE_OPTION) {
+                    try {
+                        openingBook = new OpeningBook(chooser.getSelectedFile());
+                    } catch (final IOException ex) {
+                        JOptionPane.showMessageDialog(Table.get().getGameFrame(), ex.getMessage(), "Opening Book",
+                                JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+                cbUseBookMoves.setSelected(openingBook != null);
+            }
+            useBook = cbUseBookMoves.isSelected();
+        });
 
         preferencesMenu.add(cbUseBookMoves);
 
+        // nothing feeds the panel until the AI player is back, so it stays hidden unless asked for
+        final JCheckBoxMenuItem cbShowSearchInfo = new JCheckBoxMenuItem(
+                "Show Search Info", false);
+
+        cbShowSearchInfo.addActionListener(e -> {
+            if (cbShowSearchInfo.isSelected()) {
+                Table.get().getGameFrame().add(Table.get().getDebugPanel(), BorderLayout.SOUTH);
+            } else {
+                Table.get().getGameFrame().remove(Table.get().getDebugPanel());
+            }
+            Table.get().getGameFrame().validate();
+        });
+
+        preferencesMenu.add(cbShowSearchInfo);
+
         return preferencesMenu;
 
     }
@@ -394,39 +438,61 @@ public final class Table extends Observable {
         }
         this.computerMove = null;
         Table.get().getMoveLog().clear();
-        Table.get().getGameHistoryPanel().redo(chessBoard, Table.get().getMoveLog());
+        Table.get().getGameHistoryPanel().redo(Table.get().getMoveLog());
         Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
         Table.get().getBoardPanel().drawBoard(chessBoard);
-        //Table.get().getDebugPanel().redo();
+        Table.get().getDebugPanel().redo();
     }
 
-    /*private static void loadPGNFile(final File pgnFile) {
-        try {
-            persistPGNFile(pgnFile);
+    // Sets up the first game of the file, up to its last legal move.
+    private void loadPGNFile(final File pgnFile) {
+        final PGNGame game;
+        try (final PGNReader reader = new PGNReader(pgnFile)) {
+            game = reader.readGame();
         }
         catch (final IOException e) {
             e.printStackTrace();
+            return;
+        }
+        if (game == null) {
+            JOptionPane.showMessageDialog(this.gameFrame, "No game in " + pgnFile.getName(), "Load PGN",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        undoAllMoves();
+        this.chessBoard = game.getStartBoard();
+        for (final Move move : game.getMoves()) {
+            this.chessBoard = this.chessBoard.currentPlayer().makeMove(move).getToBoard();
+            this.moveLog.addMove(move);
+        }
+        this.gameHistoryPanel.redo(this.moveLog);
+        this.takenPiecesPanel.redo(this.moveLog);
+        this.boardPanel.drawBoard(this.chessBoard);
+        this.debugPanel.redo();
+        if (!game.isValid()) {
+            JOptionPane.showMessageDialog(this.gameFrame, game.getError(), "Load PGN", JOptionPane.WARNING_MESSAGE);
         }
     }
 
-    private static void savePGNFile(final File pgnFile) {
+    private void savePGNFile(final File pgnFile) {
+        final List<Move> moves = this.moveLog.getMoves();
         try {
-            writeGameToPGNFile(pgnFile, Table.get().getMoveLog());
+            writeGameToPGNFile(pgnFile, moves.isEmpty() ? this.chessBoard : moves.get(0).getBoard(), moves);
         }
         catch (final IOException e) {
             e.printStackTrace();
         }
-    }*/
+    }
 
     private void undoLastMove() {
         final Move lastMove = Table.get().getMoveLog().removeMove(Table.get().getMoveLog().size() - 1);
         this.chessBoard = this.chessBoard.currentPlayer().unMakeMove(lastMove).getToBoard();
         this.computerMove = null;
         Table.get().getMoveLog().removeMove(lastMove);
-        Table.get().getGameHistoryPanel().redo(chessBoard, Table.get().getMoveLog());
+        Table.get().getGameHistoryPanel().redo(Table.get().getMoveLog());
         Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
         Table.get().getBoardPanel().drawBoard(chessBoard);
-        //Table.get().getDebugPanel().redo();
+        Table.get().getDebugPanel().redo();
     }
 
     /*private void moveMadeUpdate(final PlayerType playerType) {
@@ -482,21 +548,12 @@ public final class Table extends Observable {
 
         @Override
         protected Move doInBackground() {
-            final Move bestMove;
-            final Move bookMove = Table.get().getUseBook()
-                    ? MySqlGamePersistence.get().getNextBestMove(Table.get().getGameBoard(),
-                    Table.get().getGameBoard().currentPlayer(),
-                    Table.get().getMoveLog().getMoves().toString().replaceAll("\\[", "").replaceAll("]", ""))
-                    : MoveFactory.getNullMove();
-            if (Table.get().getUseBook() && bookMove != MoveFactory.getNullMove()) {
-                bestMove = bookMove;
-            }
-            else {
-                final StockAlphaBeta strategy = new StockAlphaBeta(Table.get().getGameSetup().getSearchDepth());
-                strategy.addObserver(Table.get().getDebugPanel());
-                bestMove = strategy.execute(Table.get().getGameBoard());
-            }
-            return bestMove;
+            final StockAlphaBeta strategy = new StockAlphaBeta.Builder()
+                    .setSearchDepth(Table.get().getGameSetup().getSearchDepth())
+                    .setOpeningBook(Table.get().getUseBook() ? Table.get().openingBook : null)
+                    .build();
+            strategy.addObserver(Table.get().getDebugPanel());
+            return strategy.execute(Table.get().getGameBoard());
         }
 
         @Override
@@ -506,7 +563,7 @@ public final class Table extends Observable {
                 Table.get().updateComputerMove(bestMove);
                 Table.get().updateGameBoard(Table.get().getGameBoard().currentPlayer().makeMove(bestMove).getToBoard());
                 Table.get().getMoveLog().addMove(bestMove);
-                Table.get().getGameHistoryPanel().redo(Table.get().getGameBoard(), Table.get().getMoveLog());
+                Table.get().getGameHistoryPanel().redo(Table.get().getMoveLog());
                 Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
                 Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
                 Table.get().getDebugPanel().redo();
@@ -670,13 +727,13 @@ public final class Table extends Observable {
                         }
                     }
                     invokeLater(() -> {
-                        gameHistoryPanel.redo(chessBoard, moveLog);
+                        gameHistoryPanel.redo(moveLog);
                         takenPiecesPanel.redo(moveLog);
                         //if (gameSetup.isAIPlayer(chessBoard.currentPlayer())) {
                         //Table.get().moveMadeUpdate(PlayerType.HUMAN);
                         //}
                         boardPanel.drawBoard(chessBoard);
-                        //debugPanel.redo();
+                        debugPanel.redo();
                     });
                 }
 
@@ -0,0 +1,236 @@
+package com.chess.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Board.Builder;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.*;
+
+import static com.chess.engine.board.BoardUtils.NUM_TILES;
+import static com.chess.engine.board.BoardUtils.NUM_TILES_PER_ROW;
+
+public enum FenUtilities {
+
+    INSTANCE;
+
+    private static final char[] PIECE_LETTERS = {'P', 'N', 'B', 'R', 'Q', 'K'};
+
+    // Reads the placement, side, castling and en passant fields; the move clocks are not tracked by Board.
+    public static Board createGameFromFEN(final String fenString) {
+        return createGameFromFEN(fenString, 0, fenString.length());
+    }
+
+    // Reads the FEN starting at the first non-blank character from start, so the position of an EPD
+    // record or of a line in a larger buffer parses in place. Whatever follows the en passant field
+    // is ignored. One pass over the characters, with no splitting and no regular expressions.
+    public static Board createGameFromFEN(final CharSequence fen,
+                                          final int start,
+                                          final int end) {
+        final int placementStart = skipBlanks(fen, start, end);
+        final int placementEnd = fieldEnd(fen, placementStart, end);
+        final int sideStart = skipBlanks(fen, placementEnd, end);
+        final int sideEnd = fieldEnd(fen, sideStart, end);
+        final int castlingStart = skipBlanks(fen, sideEnd, end);
+        final int castlingEnd = fieldEnd(fen, castlingStart, end);
+        final int enPassantStart = skipBlanks(fen, castlingEnd, end);
+        final int enPassantEnd = fieldEnd(fen, enPassantStart, end);
+        if (enPassantStart == enPassantEnd) {
+            throw invalid(fen, start, end);
+        }
+        int castleRights = 0;
+        for (int j = castlingStart; j < castlingEnd; j++) {
+            castleRights |= castleRight(fen.charAt(j));
+        }
+        final Pawn[] pawns = new Pawn[NUM_TILES];
+        final Builder builder = new Builder();
+        int i = 0;
+        for (int j = placementStart; j < placementEnd; j++) {
+            final char c = fen.charAt(j);
+            if (c == '/') {
+                continue;
+            }
+            if (c >= '1' && c <= '8') {
+                i += c - '0';
+                continue;
+            }
+            if (i >= NUM_TILES) {
+                throw invalid(fen, start, end);
+            }
+            final Alliance alliance = c < 'a' ? Alliance.WHITE : Alliance.BLACK;
+            switch (c | 0x20) {
+                case 'p':
+                    pawns[i] = new Pawn(alliance, i, alliance.isWhite() ?
+                            BoardUtils.INSTANCE.SEVENTH_ROW.get(i) : BoardUtils.INSTANCE.SECOND_ROW.get(i));
+                    builder.setPiece(pawns[i]);
+                    break;
+                case 'n':
+                    builder.setPiece(new Knight(alliance, i, false));
+                    break;
+                case 'b':
+                    builder.setPiece(new Bishop(alliance, i, false));
+                    break;
+                case 'r':
+                    builder.setPiece(new Rook(alliance, i, isCastleRook(alliance, i, castleRights)));
+                    break;
+                case 'q':
+                    builder.setPiece(new Queen(alliance, i, false));
+                    break;
+                case 'k':
+                    final boolean kingSideCastleCapable = (castleRights &
+                            (alliance.isWhite() ? SearchBoard.WHITE_KING_SIDE : SearchBoard.BLACK_KING_SIDE)) != 0;
+                    final boolean queenSideCastleCapable = (castleRights &
+                            (alliance.isWhite() ? SearchBoard.WHITE_QUEEN_SIDE : SearchBoard.BLACK_QUEEN_SIDE)) != 0;
+                    builder.setPiece(new King(alliance, i, kingSideCastleCapable || queenSideCastleCapable, false,
+                            kingSideCastleCapable, queenSideCastleCapable));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid FEN piece '" + c + "': " + fen.subSequence(start, end));
+            }
+            i++;
+        }
+        if (i != NUM_TILES) {
+            throw invalid(fen, start, end);
+        }
+        final Alliance moveMaker = moveMaker(fen, sideStart, sideEnd);
+        builder.setMoveMaker(moveMaker);
+        if (enPassantEnd - enPassantStart == 2) {
+            final int file = fen.charAt(enPassantStart) - 'a';
+            final int rank = fen.charAt(enPassantStart + 1) - '1';
+            if (file < 0 || file >= NUM_TILES_PER_ROW || rank < 0 || rank >= NUM_TILES_PER_ROW) {
+                throw invalid(fen, start, end);
+            }
+            final int enPassantTarget = (NUM_TILES_PER_ROW - 1 - rank) * NUM_TILES_PER_ROW + file;
+            final int enPassantPawnCoordinate = enPassantTarget + moveMaker.getOppositeDirection() * NUM_TILES_PER_ROW;
+            if (BoardUtils.isValidTileCoordinate(enPassantPawnCoordinate) && pawns[enPassantPawnCoordinate] != null) {
+                builder.setEnPassantPawn(pawns[enPassantPawnCoordinate]);
+            }
+        } else if (enPassantEnd - enPassantStart != 1 || fen.charAt(enPassantStart) != '-') {
+            throw invalid(fen, start, end);
+        }
+        return builder.build();
+    }
+
+    // The castling field holds the rights the engine would honour: those of a king and rook that have
+    // not moved. The move clocks are not tracked by Board, so they are always written as 0 1.
+    public static String createFENFromGame(final Board board) {
+        final StringBuilder builder = new StringBuilder(90);
+        int emptyTiles = 0;
+        for (int i = 0; i < NUM_TILES; i++) {
+            final Piece piece = board.getPiece(i);
+            if (piece == null) {
+                emptyTiles++;
+            } else {
+                if (emptyTiles > 0) {
+                    builder.append((char) ('0' + emptyTiles));
+                    emptyTiles = 0;
+                }
+                final char letter = PIECE_LETTERS[piece.getPieceType().ordinal()];
+                builder.append(piece.getPieceAlliance().isWhite() ? letter : (char) (letter | 0x20));
+            }
+            if (i % NUM_TILES_PER_ROW == NUM_TILES_PER_ROW - 1) {
+                if (emptyTiles > 0) {
+                    builder.append((char) ('0' + emptyTiles));
+                    emptyTiles = 0;
+                }
+                if (i != NUM_TILES - 1) {
+                    builder.append('/');
+                }
+            }
+        }
+        builder.append(board.currentPlayer().getAlliance().isWhite() ? " w " : " b ");
+        final int castlingRights = SearchBoard.calculateCastlingRights(board);
+        if (castlingRights == 0) {
+            builder.append('-');
+        } else {
+            appendIf(builder, castlingRights, SearchBoard.WHITE_KING_SIDE, 'K');
+            appendIf(builder, castlingRights, SearchBoard.WHITE_QUEEN_SIDE, 'Q');
+            appendIf(builder, castlingRights, SearchBoard.BLACK_KING_SIDE, 'k');
+            appendIf(builder, castlingRights, SearchBoard.BLACK_QUEEN_SIDE, 'q');
+        }
+        builder.append(' ');
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn == null) {
+            builder.append('-');
+        } else {
+            final int enPassantTarget = enPassantPawn.getPiecePosition() +
+                    enPassantPawn.getPieceAlliance().getOppositeDirection() * NUM_TILES_PER_ROW;
+            builder.append((char) ('a' + enPassantTarget % NUM_TILES_PER_ROW))
+                    .append((char) ('8' - enPassantTarget / NUM_TILES_PER_ROW));
+        }
+        return builder.append(" 0 1").toString();
+    }
+
+    private static void appendIf(final StringBuilder builder,
+                                 final int castlingRights,
+                                 final int right,
+                                 final char letter) {
+        if ((castlingRights & right) != 0) {
+            builder.append(letter);
+        }
+    }
+
+    private static int skipBlanks(final CharSequence fen,
+                                  int index,
+                                  final int end) {
+        while (index < end && fen.charAt(index) <= ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int fieldEnd(final CharSequence fen,
+                                int index,
+                                final int end) {
+        while (index < end && fen.charAt(index) > ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static IllegalArgumentException invalid(final CharSequence fen,
+                                                    final int start,
+                                                    final int end) {
+        return new IllegalArgumentException("Invalid FEN: " + fen.subSequence(start, end));
+    }
+
+    private static int castleRight(final char c) {
+        switch (c) {
+            case 'K':
+                return SearchBoard.WHITE_KING_SIDE;
+            case 'Q':
+                return SearchBoard.WHITE_QUEEN_SIDE;
+            case 'k':
+                return SearchBoard.BLACK_KING_SIDE;
+            case 'q':
+                return SearchBoard.BLACK_QUEEN_SIDE;
+            default:
+                return 0;
+        }
+    }
+
+    private static Alliance moveMaker(final CharSequence fen,
+                                      final int start,
+                                      final int end) {
+        if (end - start == 1) {
+            if (fen.charAt(start) == 'w') {
+                return Alliance.WHITE;
+            } else if (fen.charAt(start) == 'b') {
+                return Alliance.BLACK;
+            }
+        }
+        throw new IllegalArgumentException("Invalid FEN side to move: " + fen.subSequence(start, end));
+    }
+
+    private static boolean isCastleRook(final Alliance alliance,
+                                        final int coordinate,
+                                        final int castleRights) {
+        if (alliance.isWhite()) {
+            return (coordinate == 63 && (castleRights & SearchBoard.WHITE_KING_SIDE) != 0) ||
+                    (coordinate == 56 && (castleRights & SearchBoard.WHITE_QUEEN_SIDE) != 0);
+        }
+        return (coordinate == 7 && (castleRights & SearchBoard.BLACK_KING_SIDE) != 0) ||
+                (coordinate == 0 && (castleRights & SearchBoard.BLACK_QUEEN_SIDE) != 0);
+    }
+
+}
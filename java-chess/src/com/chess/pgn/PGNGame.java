@@ -0,0 +1,88 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveCodec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// One game read from a PGN file: its tag pairs, the position it starts from and its moves, already
+// checked against the legal moves of every position and kept packed (see MoveCodec). The Board moves
+// are only built when asked for. A game with a move that does not resolve keeps the moves before it
+// and says why in getError.
+public final class PGNGame {
+
+    private final Map<String, String> tags;
+    private final Board startBoard;
+    private final int[] moves;
+    private final String result;
+    private final String error;
+
+    PGNGame(final Map<String, String> tags,
+            final Board startBoard,
+            final int[] moves,
+            final String result,
+            final String error) {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.startBoard = startBoard;
+        this.moves = moves;
+        this.result = result;
+        this.error = error;
+    }
+
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    // null when the game has no such tag
+    public String getTag(final String name) {
+        return this.tags.get(name);
+    }
+
+    public Board getStartBoard() {
+        return this.startBoard;
+    }
+
+    // The result that ends the movetext: 1-0, 0-1, 1/2-1/2 or *.
+    public String getResult() {
+        return this.result;
+    }
+
+    public boolean isValid() {
+        return this.error == null;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    public int getMoveCount() {
+        return this.moves.length;
+    }
+
+    public int[] getPackedMoves() {
+        return this.moves.clone();
+    }
+
+    // Plays the game out on Board, one Board per move.
+    public List<Move> getMoves() {
+        final List<Move> moves = new ArrayList<>(this.moves.length);
+        Board board = this.startBoard;
+        for (final int packedMove : this.moves) {
+            final Move move = MoveCodec.decode(board, packedMove);
+            moves.add(move);
+            board = board.currentPlayer().makeMove(move).getToBoard();
+        }
+        return moves;
+    }
+
+    @Override
+    public String toString() {
+        return this.tags.getOrDefault("White", "?") + " - " + this.tags.getOrDefault("Black", "?") + " " +
+                this.result + " (" + this.moves.length + " plies" + (this.error != null ? ", " + this.error : "") + ")";
+    }
+
+}
@@ -0,0 +1,284 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.SearchBoard;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// Reads and replays the games of a PGN file on a pool of threads. The file is cut into chunks of about
+// chunkSizeInBytes, each ending where a game begins, and every chunk is read by its own PGNReader
+// and played through on a SearchBoard. The thread calling run gets the games, so the consumer needs
+// no locking: in file order when ordered, or chunk by chunk as they finish otherwise. At most
+// maxChunksInFlight chunks are being read or waiting for the consumer at once, so a slow consumer
+// holds the readers back instead of filling the memory.
+public final class PGNPipeline {
+
+    public static final int DEFAULT_CHUNK_SIZE_IN_BYTES = 4 << 20;
+
+    // how much of the file to look through for the next game after the end of a chunk, at a time
+    private static final int BOUNDARY_SCAN_SIZE = 1 << 16;
+    // the longest game result, 1/2-1/2
+    private static final int RESULT_TOKEN_LENGTH = 7;
+
+    private final int threadCount;
+    private final int chunkSizeInBytes;
+    private final int maxChunksInFlight;
+    private final boolean ordered;
+
+    private PGNPipeline(final Builder builder) {
+        this.threadCount = Math.max(1, builder.threadCount);
+        this.chunkSizeInBytes = Math.max(1, builder.chunkSizeInBytes);
+        this.maxChunksInFlight = Math.max(1, builder.maxChunksInFlight > 0 ? builder.maxChunksInFlight :
+                2 * this.threadCount);
+        this.ordered = builder.ordered;
+    }
+
+    public Summary run(final File pgnFile,
+                       final Consumer<ReplayedGame> consumer) throws IOException {
+        final long startTime = System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(this.threadCount, runnable -> {
+            final Thread thread = new Thread(runnable, "PGNPipeline-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final CompletionService<List<ReplayedGame>> completionService = new ExecutorCompletionService<>(executor);
+        final ArrayDeque<Future<List<ReplayedGame>>> inFlight = new ArrayDeque<>(this.maxChunksInFlight);
+        long games = 0;
+        long invalidGames = 0;
+        long plies = 0;
+        try (final FileChannel channel = FileChannel.open(pgnFile.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long chunkStart = 0;
+            while (chunkStart < size || !inFlight.isEmpty()) {
+                while (chunkStart < size && inFlight.size() < this.maxChunksInFlight) {
+                    final long start = chunkStart;
+                    final long end = nextGameStart(channel, size, start + this.chunkSizeInBytes);
+                    final Callable<List<ReplayedGame>> task = () -> replayChunk(pgnFile, start, end);
+                    inFlight.add(this.ordered ? executor.submit(task) : completionService.submit(task));
+                    chunkStart = end;
+                }
+                final Future<List<ReplayedGame>> done = this.ordered ? inFlight.peekFirst() : completionService.take();
+                final List<ReplayedGame> chunk = done.get();
+                inFlight.remove(done);
+                for (final ReplayedGame game : chunk) {
+                    consumer.accept(game);
+                    games++;
+                    plies += game.getGame().getMoveCount();
+                    if (!game.isValid()) {
+                        invalidGames++;
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted reading " + pgnFile, e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed reading " + pgnFile, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Summary(games, invalidGames, plies, System.nanoTime() - startTime);
+    }
+
+    private static List<ReplayedGame> replayChunk(final File pgnFile,
+                                                  final long start,
+                                                  final long end) throws IOException {
+        final List<ReplayedGame> games = new ArrayList<>();
+        try (final PGNReader reader = new PGNReader(pgnFile, start, end)) {
+            PGNGame game;
+            while ((game = reader.readGame()) != null) {
+                games.add(replay(game));
+            }
+        }
+        return games;
+    }
+
+    private static ReplayedGame replay(final PGNGame game) {
+        final int[] moves = game.getPackedMoves();
+        final long[] positionKeys = new long[moves.length + 1];
+        SearchBoard board = SearchBoard.fromBoard(game.getStartBoard());
+        positionKeys[0] = board.getZobristKey();
+        for (int i = 0; i < moves.length; i++) {
+            if (board.getPly() == SearchBoard.MAX_PLY - 1) {
+                board = SearchBoard.fromBoard(board.toBoard());
+            }
+            board.makeMove(moves[i]);
+            positionKeys[i + 1] = board.getZobristKey();
+        }
+        return new ReplayedGame(game, positionKeys, moves.length == 0 ? game.getStartBoard() : board.toBoard());
+    }
+
+    // Where the first game at or after the offset begins: the first line opening with [ whose last token
+    // before it, outside comments, is a game result. A comment may wrap onto a line opening with [, such as
+    // one holding a [%clk] command, so the comments are skipped; a } with nothing to close shows that the
+    // offset fell in one, and what came before it is dropped. The token the offset falls in is passed
+    // over, as it may be cut.
+    static long nextGameStart(final FileChannel channel,
+                              final long size,
+                              final long offset) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        final byte[] token = new byte[RESULT_TOKEN_LENGTH + 1];
+        int tokenLength = 0;
+        boolean tokenCut = true;
+        boolean atLineStart = false;
+        boolean inComment = false;
+        boolean inLineComment = false;
+        boolean afterResult = false;
+        long position = offset;
+        while (position < size) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++, position++) {
+                final byte c = buffer.get(i);
+                if (inComment) {
+                    inComment = c != '}';
+                    continue;
+                }
+                if (inLineComment) {
+                    inLineComment = c != '\n';
+                    atLineStart = c == '\n';
+                    continue;
+                }
+                if (c <= ' ' || c == '{' || c == '}' || c == ';' || (c == '%' && tokenLength == 0)) {
+                    if (tokenLength > 0 && !tokenCut) {
+                        afterResult = isResult(token, tokenLength);
+                    }
+                    tokenLength = 0;
+                    tokenCut = false;
+                    atLineStart = c == '\n' || (c <= ' ' && atLineStart);
+                    if (c == '{') {
+                        inComment = true;
+                    } else if (c == '}') {
+                        afterResult = false;
+                    } else if (c == ';' || c == '%') {
+                        inLineComment = true;
+                    }
+                    continue;
+                }
+                if (atLineStart && c == '[' && afterResult) {
+                    return position;
+                }
+                atLineStart = false;
+                if (tokenLength < token.length) {
+                    token[tokenLength++] = c;
+                }
+            }
+        }
+        return size;
+    }
+
+    private static boolean isResult(final byte[] token,
+                                    final int length) {
+        final String text = new String(token, 0, length, StandardCharsets.US_ASCII);
+        return text.equals("1-0") || text.equals("0-1") || text.equals("1/2-1/2") || text.equals("*");
+    }
+
+    // What a run read, and how fast.
+    public static final class Summary {
+
+        private final long games;
+        private final long invalidGames;
+        private final long plies;
+        private final long elapsedNanos;
+
+        Summary(final long games,
+                final long invalidGames,
+                final long plies,
+                final long elapsedNanos) {
+            this.games = games;
+            this.invalidGames = invalidGames;
+            this.plies = plies;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getGames() {
+            return this.games;
+        }
+
+        public long getInvalidGames() {
+            return this.invalidGames;
+        }
+
+        public long getPlies() {
+            return this.plies;
+        }
+
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        public double getGamesPerSecond() {
+            return this.elapsedNanos == 0 ? 0 : this.games * 1e9 / this.elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d games (%d invalid), %d plies in %d ms, %.0f games/s", this.games,
+                    this.invalidGames, this.plies, this.elapsedNanos / 1_000_000, getGamesPerSecond());
+        }
+
+    }
+
+    public static class Builder {
+
+        int threadCount;
+        int chunkSizeInBytes;
+        int maxChunksInFlight;
+        boolean ordered;
+
+        public Builder() {
+            this.threadCount = Runtime.getRuntime().availableProcessors();
+            this.chunkSizeInBytes = DEFAULT_CHUNK_SIZE_IN_BYTES;
+            this.ordered = true;
+        }
+
+        public Builder setThreadCount(final int threadCount) {
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        public Builder setChunkSizeInBytes(final int chunkSizeInBytes) {
+            this.chunkSizeInBytes = chunkSizeInBytes;
+            return this;
+        }
+
+        // Twice the threads when not set.
+        public Builder setMaxChunksInFlight(final int maxChunksInFlight) {
+            this.maxChunksInFlight = maxChunksInFlight;
+            return this;
+        }
+
+        // Whether the consumer gets the games in file order, waiting on a slow chunk if need be.
+        public Builder setOrdered(final boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        public PGNPipeline build() {
+            return new PGNPipeline(this);
+        }
+
+    }
+
+}
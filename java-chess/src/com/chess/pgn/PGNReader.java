@@ -0,0 +1,431 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MoveCodec;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.chess.engine.board.BitBoardUtils.NUM_PIECE_TYPES;
+import static com.chess.engine.board.BoardUtils.NUM_TILES_PER_ROW;
+
+// Reads the games of a PGN file one at a time, tokenizing straight from the file mapped into memory a
+// window at a time, so the file is never held whole however large it is. Every SAN move is matched
+// against the legal moves of its position on a SearchBoard, the same moves Board allows; comments,
+// variations, NAGs and move numbers are skipped. Tag values are read as UTF-8.
+public final class PGNReader implements Closeable {
+
+    // the part of the file mapped at once; tokens run on into the next window
+    private static final long WINDOW_SIZE = 1L << 28;
+    private static final int MAX_TOKEN_LENGTH = 256;
+    private static final int END_OF_FILE = -1;
+    private static final int NOT_A_CASTLE = -1;
+
+    private final FileChannel channel;
+    private final long end;
+    private final byte[] token;
+    private final MoveList legalMoves;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long windowEnd;
+    private long position;
+    private int tokenLength;
+    private byte[] text;
+    private int[] moves;
+
+    public PGNReader(final File pgnFile) throws IOException {
+        this(pgnFile, 0, Long.MAX_VALUE);
+    }
+
+    // Reads the games between two byte offsets of the file; start should be where a game begins.
+    public PGNReader(final File pgnFile,
+                     final long start,
+                     final long end) throws IOException {
+        this.channel = FileChannel.open(pgnFile.toPath(), StandardOpenOption.READ);
+        this.end = Math.min(end, this.channel.size());
+        this.position = start;
+        this.windowStart = start;
+        this.windowEnd = start;
+        this.token = new byte[MAX_TOKEN_LENGTH];
+        this.legalMoves = new MoveList();
+        this.text = new byte[MAX_TOKEN_LENGTH];
+        this.moves = new int[MAX_TOKEN_LENGTH];
+        // a UTF-8 byte order mark
+        if (start == 0 && peek() == 0xEF) {
+            this.position += 3;
+        }
+    }
+
+    // The next game, or null after the last one.
+    public PGNGame readGame() throws IOException {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        int c = skipBlanksAndComments();
+        while (c == '[') {
+            readTag(tags);
+            c = skipBlanksAndComments();
+        }
+        if (c == END_OF_FILE && tags.isEmpty()) {
+            return null;
+        }
+        return readMoveText(tags);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.window = null;
+        this.channel.close();
+    }
+
+    private PGNGame readMoveText(final Map<String, String> tags) throws IOException {
+        String error = null;
+        Board startBoard = Board.createStandardBoard();
+        final String fen = tags.get("FEN");
+        if (fen != null) {
+            try {
+                startBoard = FenUtilities.createGameFromFEN(fen);
+            } catch (final IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+        SearchBoard board = SearchBoard.fromBoard(startBoard);
+        String result = null;
+        int moveCount = 0;
+        while (result == null) {
+            final int c = skipBlanksAndComments();
+            if (c == END_OF_FILE || c == '[') {
+                break;
+            }
+            if (c == '(') {
+                skipVariation();
+                continue;
+            }
+            readToken();
+            if (this.tokenLength == 0) {
+                // a stray ), } or ]
+                this.position++;
+                continue;
+            }
+            result = resultOf(this.token, this.tokenLength);
+            if (result != null) {
+                break;
+            }
+            final int start = skipMoveNumber(this.token, this.tokenLength);
+            // NAGs, and annotations written apart from their move
+            if (start == this.tokenLength || this.token[0] == '$' || isAnnotation(this.token[start]) || error != null) {
+                continue;
+            }
+            final int move = resolveMove(board, this.token, start, this.tokenLength, this.legalMoves);
+            if (move == MoveCodec.NULL_MOVE) {
+                error = "Illegal or ambiguous move " +
+                        new String(this.token, start, this.tokenLength - start, StandardCharsets.US_ASCII) +
+                        " at ply " + (moveCount + 1);
+                continue;
+            }
+            if (moveCount == this.moves.length) {
+                this.moves = Arrays.copyOf(this.moves, moveCount * 2);
+            }
+            this.moves[moveCount++] = move;
+            if (board.getPly() == SearchBoard.MAX_PLY - 1) {
+                board = SearchBoard.fromBoard(board.toBoard());
+            }
+            board.makeMove(move);
+        }
+        return new PGNGame(tags, startBoard, Arrays.copyOf(this.moves, moveCount),
+                result != null ? result : tags.getOrDefault("Result", "*"), error);
+    }
+
+    // The packed legal move the SAN names, or the null move when it names none or more than one.
+    // Captures need no x, and a promotion needs no =. The legal moves go into the given list.
+    static int resolveMove(final SearchBoard board,
+                           final byte[] san,
+                           int start,
+                           int end,
+                           final MoveList legalMoves) {
+        while (end > start && isAnnotation(san[end - 1])) {
+            end--;
+        }
+        final int castleFlag = castleFlag(san, start, end);
+        int pieceType = PieceType.PAWN.ordinal();
+        int promotionType = SearchBoard.NO_PROMOTION;
+        int fromFile = -1;
+        int fromRank = -1;
+        int to = -1;
+        if (castleFlag == NOT_A_CASTLE) {
+            // a lower case b is the b file, not a bishop
+            if (san[start] >= 'A' && san[start] <= 'Z') {
+                pieceType = pieceTypeOf(san[start]);
+                start++;
+                if (pieceType == -1) {
+                    return MoveCodec.NULL_MOVE;
+                }
+            }
+            if (pieceType == PieceType.PAWN.ordinal() && end - start > 2) {
+                promotionType = pieceTypeOf(san[end - 1]);
+                if (promotionType != -1) {
+                    end -= san[end - 2] == '=' ? 2 : 1;
+                } else {
+                    promotionType = SearchBoard.NO_PROMOTION;
+                }
+            }
+            if (end - start < 2) {
+                return MoveCodec.NULL_MOVE;
+            }
+            final int toFile = san[end - 2] - 'a';
+            final int toRank = san[end - 1] - '1';
+            if (!isOnBoard(toFile) || !isOnBoard(toRank)) {
+                return MoveCodec.NULL_MOVE;
+            }
+            to = coordinate(toFile, toRank);
+            for (int i = start; i < end - 2; i++) {
+                final byte c = san[i];
+                if (c >= 'a' && c <= 'h') {
+                    fromFile = c - 'a';
+                } else if (c >= '1' && c <= '8') {
+                    fromRank = c - '1';
+                } else if (c != 'x' && c != ':' && c != '-') {
+                    return MoveCodec.NULL_MOVE;
+                }
+            }
+        } else if (castleFlag == MoveCodec.NULL_MOVE) {
+            return MoveCodec.NULL_MOVE;
+        }
+        MoveGenerator.generateLegalMoves(board, legalMoves);
+        int match = MoveCodec.NULL_MOVE;
+        for (int i = 0; i < legalMoves.size(); i++) {
+            final int move = legalMoves.get(i);
+            final boolean matches;
+            if (castleFlag != NOT_A_CASTLE) {
+                matches = MoveCodec.getFlag(move) == castleFlag;
+            } else {
+                final int from = MoveCodec.getFrom(move);
+                matches = MoveCodec.getTo(move) == to &&
+                        board.getPieceIndex(from) % NUM_PIECE_TYPES == pieceType &&
+                        MoveCodec.getPromotionType(move) == promotionType &&
+                        (fromFile == -1 || from % NUM_TILES_PER_ROW == fromFile) &&
+                        (fromRank == -1 || NUM_TILES_PER_ROW - 1 - from / NUM_TILES_PER_ROW == fromRank);
+            }
+            if (matches) {
+                if (match != MoveCodec.NULL_MOVE) {
+                    return MoveCodec.NULL_MOVE;
+                }
+                match = move;
+            }
+        }
+        return match;
+    }
+
+    // NOT_A_CASTLE for any other move, and the null move for one that starts like a castle but is not
+    // written as one.
+    private static int castleFlag(final byte[] san,
+                                  final int start,
+                                  final int end) {
+        if (end == start || (san[start] != 'O' && san[start] != '0')) {
+            return NOT_A_CASTLE;
+        }
+        final int length = end - start;
+        if ((length != 3 && length != 5) || san[start + 1] != '-' || san[start + 2] != san[start] ||
+                (length == 5 && (san[start + 3] != '-' || san[start + 4] != san[start]))) {
+            return MoveCodec.NULL_MOVE;
+        }
+        return length == 3 ? MoveCodec.KING_CASTLE : MoveCodec.QUEEN_CASTLE;
+    }
+
+    private static int pieceTypeOf(final byte letter) {
+        switch (letter) {
+            case 'P':
+                return PieceType.PAWN.ordinal();
+            case 'N':
+            case 'n':
+                return PieceType.KNIGHT.ordinal();
+            case 'B':
+            case 'b':
+                return PieceType.BISHOP.ordinal();
+            case 'R':
+            case 'r':
+                return PieceType.ROOK.ordinal();
+            case 'Q':
+            case 'q':
+                return PieceType.QUEEN.ordinal();
+            case 'K':
+                return PieceType.KING.ordinal();
+            default:
+                return -1;
+        }
+    }
+
+    private static boolean isAnnotation(final byte c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    private static boolean isOnBoard(final int fileOrRank) {
+        return fileOrRank >= 0 && fileOrRank < NUM_TILES_PER_ROW;
+    }
+
+    private static int coordinate(final int file,
+                                  final int rank) {
+        return (NUM_TILES_PER_ROW - 1 - rank) * NUM_TILES_PER_ROW + file;
+    }
+
+    private static String resultOf(final byte[] token,
+                                   final int length) {
+        if (length == 1 && token[0] == '*') {
+            return "*";
+        }
+        if (length == 3 && token[1] == '-' && ((token[0] == '1' && token[2] == '0') || (token[0] == '0' && token[2] == '1'))) {
+            return token[0] == '1' ? "1-0" : "0-1";
+        }
+        if (length == 7 && token[0] == '1' && token[1] == '/' && token[2] == '2' && token[3] == '-' &&
+                token[4] == '1' && token[5] == '/' && token[6] == '2') {
+            return "1/2-1/2";
+        }
+        return null;
+    }
+
+    // Where the move starts after a move number such as 12. or 12... glued to it.
+    private static int skipMoveNumber(final byte[] token,
+                                      final int length) {
+        int i = 0;
+        while (i < length && token[i] >= '0' && token[i] <= '9') {
+            i++;
+        }
+        if (i == 0 || (i < length && token[i] != '.')) {
+            return i == length ? length : 0;
+        }
+        while (i < length && token[i] == '.') {
+            i++;
+        }
+        return i;
+    }
+
+    private void readTag(final Map<String, String> tags) throws IOException {
+        this.position++;
+        int c = skipBlanks();
+        int nameLength = 0;
+        while (c > ' ' && c != '"' && c != ']') {
+            appendText(nameLength++, c);
+            this.position++;
+            c = peek();
+        }
+        final String name = new String(this.text, 0, nameLength, StandardCharsets.US_ASCII);
+        c = skipBlanks();
+        int valueLength = 0;
+        if (c == '"') {
+            this.position++;
+            while ((c = peek()) != END_OF_FILE && c != '"' && c != '\n') {
+                this.position++;
+                if (c == '\\') {
+                    c = peek();
+                    if (c == END_OF_FILE) {
+                        break;
+                    }
+                    this.position++;
+                }
+                appendText(valueLength++, c);
+            }
+        }
+        while ((c = peek()) != END_OF_FILE && c != ']' && c != '\n') {
+            this.position++;
+        }
+        if (c == ']') {
+            this.position++;
+        }
+        tags.put(name, new String(this.text, 0, valueLength, StandardCharsets.UTF_8));
+    }
+
+    private void appendText(final int index,
+                            final int c) {
+        if (index == this.text.length) {
+            this.text = Arrays.copyOf(this.text, index * 2);
+        }
+        this.text[index] = (byte) c;
+    }
+
+    // Reads up to the next blank or delimiter, keeping the first MAX_TOKEN_LENGTH bytes.
+    private void readToken() throws IOException {
+        this.tokenLength = 0;
+        int c;
+        while ((c = peek()) > ' ' && !isDelimiter(c)) {
+            if (this.tokenLength < MAX_TOKEN_LENGTH) {
+                this.token[this.tokenLength++] = (byte) c;
+            }
+            this.position++;
+        }
+    }
+
+    private static boolean isDelimiter(final int c) {
+        return c == '{' || c == '}' || c == '(' || c == ')' || c == ';' || c == '[' || c == ']';
+    }
+
+    // The next byte that is not blank or part of a comment, left unread.
+    private int skipBlanksAndComments() throws IOException {
+        while (true) {
+            final int c = skipBlanks();
+            if (c == '{') {
+                skipPast('}');
+            } else if (c == ';' || c == '%') {
+                skipPast('\n');
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int skipBlanks() throws IOException {
+        int c;
+        while ((c = peek()) != END_OF_FILE && c <= ' ') {
+            this.position++;
+        }
+        return c;
+    }
+
+    private void skipPast(final int end) throws IOException {
+        int c;
+        do {
+            c = peek();
+            this.position++;
+        } while (c != END_OF_FILE && c != end);
+    }
+
+    // Variations nest, and their comments may hold parentheses.
+    private void skipVariation() throws IOException {
+        int depth = 0;
+        while (true) {
+            final int c = skipBlanksAndComments();
+            if (c == END_OF_FILE) {
+                return;
+            }
+            this.position++;
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return;
+            }
+        }
+    }
+
+    private int peek() throws IOException {
+        if (this.position >= this.windowEnd) {
+            if (this.position >= this.end) {
+                return END_OF_FILE;
+            }
+            final long length = Math.min(WINDOW_SIZE, this.end - this.position);
+            this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, this.position, length);
+            this.windowStart = this.position;
+            this.windowEnd = this.position + length;
+        }
+        return this.window.get((int) (this.position - this.windowStart)) & 0xFF;
+    }
+
+}
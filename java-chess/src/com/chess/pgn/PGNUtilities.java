@@ -0,0 +1,147 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveCodec;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PolyglotKey;
+import com.chess.engine.board.SearchBoard;
+
+import com.chess.engine.player.ai.OpeningBook;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public enum PGNUtilities {
+
+    INSTANCE;
+
+    // Streams the games of the file to the consumer as they are read, and returns how many there were.
+    public static long readPGNFile(final File pgnFile,
+                                   final Consumer<PGNGame> consumer) throws IOException {
+        long games = 0;
+        try (final PGNReader reader = new PGNReader(pgnFile)) {
+            PGNGame game;
+            while ((game = reader.readGame()) != null) {
+                consumer.accept(game);
+                games++;
+            }
+        }
+        return games;
+    }
+
+    // Writes the games to the file one after another, and returns how many there were.
+    public static long writePGNFile(final File pgnFile,
+                                    final Iterable<PGNGame> games) throws IOException {
+        long count = 0;
+        try (final PGNWriter writer = new PGNWriter(pgnFile)) {
+            for (final PGNGame game : games) {
+                writer.writeGame(game);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Writes the game played from the start board, with the seven tag roster and the result the last
+    // position calls for: a win on mate, a draw on stalemate, and * while the game goes on.
+    public static void writeGameToPGNFile(final File pgnFile,
+                                          final Board startBoard,
+                                          final List<Move> moves) throws IOException {
+        final int[] packedMoves = new int[moves.size()];
+        SearchBoard board = SearchBoard.fromBoard(startBoard);
+        for (int i = 0; i < packedMoves.length; i++) {
+            packedMoves[i] = MoveCodec.encode(moves.get(i));
+            if (board.getPly() == SearchBoard.MAX_PLY - 1) {
+                board = SearchBoard.fromBoard(board.toBoard());
+            }
+            board.makeMove(packedMoves[i]);
+        }
+        final String result = calculateResult(board);
+        final Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "JChess game");
+        tags.put("Site", "?");
+        tags.put("Date", new SimpleDateFormat("yyyy.MM.dd").format(new Date()));
+        tags.put("Round", "-");
+        tags.put("White", "?");
+        tags.put("Black", "?");
+        tags.put("Result", result);
+        try (final PGNWriter writer = new PGNWriter(pgnFile)) {
+            writer.writeGame(new PGNGame(tags, startBoard, packedMoves, result, null));
+        }
+    }
+
+    private static String calculateResult(final SearchBoard board) {
+        final MoveList legalMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, legalMoves);
+        if (!legalMoves.isEmpty()) {
+            return "*";
+        }
+        if (!board.isInCheck()) {
+            return "1/2-1/2";
+        }
+        return board.getSideToMove().isWhite() ? "0-1" : "1-0";
+    }
+
+    // Makes an opening book (see OpeningBook) of the first maxPlies moves of the games of the PGN file,
+    // and returns how many entries it has. A move weighs 2 for every game its side won and 1 for every
+    // draw or unfinished game; moves that only lost are left out, and the weights are scaled down
+    // together when the heaviest does not fit in 16 bits.
+    public static int writeOpeningBook(final File pgnFile,
+                                       final File bookFile,
+                                       final int maxPlies) throws IOException {
+        final Map<Long, Map<Integer, Integer>> positions = new HashMap<>();
+        new PGNPipeline.Builder().setOrdered(false).build().run(pgnFile, game -> {
+            final int[] moves = game.getGame().getPackedMoves();
+            final String result = game.getGame().getResult();
+            // the pipeline gives the Zobrist keys of the engine, so the Polyglot keys come from a replay
+            SearchBoard board = SearchBoard.fromBoard(game.getGame().getStartBoard());
+            for (int ply = 0; ply < Math.min(maxPlies, moves.length); ply++) {
+                final boolean white = board.getSideToMove().isWhite();
+                final int weight = result.equals(white ? "1-0" : "0-1") ? 2 : result.equals(white ? "0-1" : "1-0") ? 0 : 1;
+                if (weight > 0) {
+                    positions.computeIfAbsent(PolyglotKey.calculateKey(board), key -> new HashMap<>())
+                            .merge(OpeningBook.toPolyglotMove(moves[ply]), weight, Integer::sum);
+                }
+                if (board.getPly() == SearchBoard.MAX_PLY - 1) {
+                    board = SearchBoard.fromBoard(board.toBoard());
+                }
+                board.makeMove(moves[ply]);
+            }
+        });
+        final List<Long> keys = new ArrayList<>(positions.keySet());
+        keys.sort(Long::compareUnsigned);
+        int heaviest = 1;
+        for (final Map<Integer, Integer> bookMoves : positions.values()) {
+            for (final int weight : bookMoves.values()) {
+                heaviest = Math.max(heaviest, weight);
+            }
+        }
+        final int divisor = (heaviest + OpeningBook.MAX_WEIGHT - 1) / OpeningBook.MAX_WEIGHT;
+        int entries = 0;
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(bookFile), 1 << 16))) {
+            for (final long key : keys) {
+                final List<Map.Entry<Integer, Integer>> bookMoves = new ArrayList<>(positions.get(key).entrySet());
+                bookMoves.sort((first, second) -> second.getValue() - first.getValue());
+                for (final Map.Entry<Integer, Integer> bookMove : bookMoves) {
+                    OpeningBook.writeEntry(out, key, bookMove.getKey(), Math.max(1, bookMove.getValue() / divisor));
+                    entries++;
+                }
+            }
+        }
+        return entries;
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Writes games in the PGN export format: the tag pairs, a blank line, the movetext in SAN wrapped at
+// 79 characters and the result. Each game is built up in one reused StringBuilder from its packed moves
+// on a SearchBoard, and goes to the file in a single write.
+public final class PGNWriter implements Closeable {
+
+    private static final int MAX_LINE_LENGTH = 79;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Writer writer;
+    private final StringBuilder text;
+    private final MoveList legalMoves;
+    private final long standardKey;
+
+    public PGNWriter(final File pgnFile) throws IOException {
+        this(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(pgnFile), StandardCharsets.UTF_8),
+                BUFFER_SIZE));
+    }
+
+    public PGNWriter(final Writer writer) {
+        this.writer = writer;
+        this.text = new StringBuilder(4096);
+        this.legalMoves = new MoveList();
+        this.standardKey = Board.createStandardBoard().getZobristKey();
+    }
+
+    public void writeGame(final PGNGame game) throws IOException {
+        final StringBuilder text = this.text;
+        text.setLength(0);
+        for (final Map.Entry<String, String> tag : game.getTags().entrySet()) {
+            appendTag(tag.getKey(), tag.getValue());
+        }
+        final Board startBoard = game.getStartBoard();
+        if (startBoard.getZobristKey() != this.standardKey && game.getTag("FEN") == null) {
+            appendTag("SetUp", "1");
+            appendTag("FEN", FenUtilities.createFENFromGame(startBoard));
+        }
+        text.append('\n');
+        int lineStart = text.length();
+        SearchBoard board = SearchBoard.fromBoard(startBoard);
+        int moveNumber = 1;
+        final int[] moves = game.getPackedMoves();
+        for (int i = 0; i < moves.length; i++) {
+            final boolean white = board.getSideToMove().isWhite();
+            if (white || i == 0) {
+                appendSeparator(lineStart);
+                text.append(moveNumber).append(white ? "." : "...");
+            }
+            if (board.getPly() == SearchBoard.MAX_PLY - 1) {
+                board = SearchBoard.fromBoard(board.toBoard());
+            }
+            appendSeparator(lineStart);
+            SANUtilities.appendSAN(board, moves[i], text, this.legalMoves);
+            lineStart = wrap(lineStart);
+            if (!white) {
+                moveNumber++;
+            }
+        }
+        appendSeparator(lineStart);
+        text.append(game.getResult());
+        wrap(lineStart);
+        text.append("\n\n");
+        this.writer.append(text);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writer.close();
+    }
+
+    private void appendTag(final String name,
+                           final String value) {
+        this.text.append('[').append(name).append(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                this.text.append('\\');
+            }
+            this.text.append(c);
+        }
+        this.text.append("\"]\n");
+    }
+
+    // A space before the next token, unless it starts the line.
+    private void appendSeparator(final int lineStart) {
+        if (this.text.length() > lineStart) {
+            this.text.append(' ');
+        }
+    }
+
+    // Moves the token just written onto a new line when it ran past the line length, by turning the
+    // space before it into the line break, and returns where the current line starts.
+    private int wrap(final int lineStart) {
+        final int length = this.text.length();
+        if (length - lineStart <= MAX_LINE_LENGTH) {
+            return lineStart;
+        }
+        final int space = this.text.lastIndexOf(" ", length - 1);
+        if (space < lineStart) {
+            return lineStart;
+        }
+        int breakAt = space;
+        // keep a move number with its move
+        final int previousSpace = this.text.lastIndexOf(" ", space - 1);
+        if (previousSpace >= lineStart && this.text.charAt(space - 1) == '.') {
+            breakAt = previousSpace;
+        }
+        this.text.setCharAt(breakAt, '\n');
+        return breakAt + 1;
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+
+// A game the PGNPipeline has played through: the game as read, the Zobrist key of every position
+// from the start to the end, and the board it ends on. A game with an error ends at the last move
+// that resolved.
+public final class ReplayedGame {
+
+    private final PGNGame game;
+    private final long[] positionKeys;
+    private final Board finalBoard;
+
+    ReplayedGame(final PGNGame game,
+                 final long[] positionKeys,
+                 final Board finalBoard) {
+        this.game = game;
+        this.positionKeys = positionKeys;
+        this.finalBoard = finalBoard;
+    }
+
+    public PGNGame getGame() {
+        return this.game;
+    }
+
+    // One more than the moves: the start position first.
+    public long[] getPositionKeys() {
+        return this.positionKeys.clone();
+    }
+
+    public Board getFinalBoard() {
+        return this.finalBoard;
+    }
+
+    public boolean isValid() {
+        return this.game.isValid();
+    }
+
+    public String getError() {
+        return this.game.getError();
+    }
+
+    @Override
+    public String toString() {
+        return this.game.toString();
+    }
+
+}
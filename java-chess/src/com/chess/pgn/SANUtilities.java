@@ -0,0 +1,121 @@
+package com.chess.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
+import com.chess.engine.board.MoveCodec;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+// Standard algebraic notation for packed moves (see MoveCodec). Rivals for the same tile are found from
+// the attack masks of the board, and a rival only counts when moving it would not expose the king, so
+// no legal moves are generated except to tell mate from check.
+public enum SANUtilities {
+
+    INSTANCE;
+
+    private static final String PIECE_LETTERS = "PNBRQK";
+
+    // Writes the move and plays it on the board, so a game is written by calling this for every move in turn.
+    public static void appendSAN(final SearchBoard board,
+                                 final int move,
+                                 final StringBuilder out,
+                                 final MoveList legalMoves) {
+        final int from = MoveCodec.getFrom(move);
+        final int to = MoveCodec.getTo(move);
+        final int flag = MoveCodec.getFlag(move);
+        if (flag == MoveCodec.KING_CASTLE) {
+            out.append("O-O");
+        } else if (flag == MoveCodec.QUEEN_CASTLE) {
+            out.append("O-O-O");
+        } else {
+            final int pieceType = board.getPieceIndex(from) % BitBoardUtils.NUM_PIECE_TYPES;
+            if (pieceType == PieceType.PAWN.ordinal()) {
+                if (MoveCodec.isCapture(move)) {
+                    out.append(fileOf(from)).append('x');
+                }
+            } else {
+                out.append(PIECE_LETTERS.charAt(pieceType));
+                appendDisambiguation(board, from, to, pieceType, out);
+                if (MoveCodec.isCapture(move)) {
+                    out.append('x');
+                }
+            }
+            out.append(fileOf(to)).append(rankOf(to));
+            if (MoveCodec.isPromotion(move)) {
+                out.append('=').append(PIECE_LETTERS.charAt(MoveCodec.getPromotionType(move)));
+            }
+        }
+        board.makeMove(move);
+        if (board.isInCheck()) {
+            MoveGenerator.generateLegalMoves(board, legalMoves);
+            out.append(legalMoves.isEmpty() ? '#' : '+');
+        }
+    }
+
+    public static String toSAN(final SearchBoard board,
+                               final int move) {
+        final StringBuilder san = new StringBuilder(8);
+        appendSAN(board, move, san, new MoveList());
+        board.unmakeMove();
+        return san.toString();
+    }
+
+    // The file of the piece when it tells the rivals apart, else its rank, else both.
+    private static void appendDisambiguation(final SearchBoard board,
+                                             final int from,
+                                             final int to,
+                                             final int pieceType,
+                                             final StringBuilder out) {
+        final Alliance us = board.getSideToMove();
+        final Alliance them = us.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        final long occupancy = board.getOccupancy();
+        long rivals = board.getAttackers(to, us, occupancy) &
+                board.getPieceBitBoard(us, PieceType.values()[pieceType]) & ~BitBoardUtils.squareMask(from);
+        boolean sameFile = false;
+        boolean sameRank = false;
+        boolean ambiguous = false;
+        while (rivals != BitBoardUtils.EMPTY) {
+            final int rival = BitBoardUtils.firstCoordinate(rivals);
+            rivals = BitBoardUtils.clearFirst(rivals);
+            if (!isLegal(board, rival, to, us, them, occupancy)) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= rival % 8 == from % 8;
+            sameRank |= rival / 8 == from / 8;
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            out.append(fileOf(from));
+        } else if (!sameRank) {
+            out.append(rankOf(from));
+        } else {
+            out.append(fileOf(from)).append(rankOf(from));
+        }
+    }
+
+    // Whether the own king is safe once the piece has gone to the tile, taking whatever stood there.
+    private static boolean isLegal(final SearchBoard board,
+                                   final int from,
+                                   final int to,
+                                   final Alliance us,
+                                   final Alliance them,
+                                   final long occupancy) {
+        final long after = (occupancy & ~BitBoardUtils.squareMask(from)) | BitBoardUtils.squareMask(to);
+        return (board.getAttackers(board.getKingCoordinate(us), them, after) &
+                ~BitBoardUtils.squareMask(to)) == BitBoardUtils.EMPTY;
+    }
+
+    private static char fileOf(final int coordinate) {
+        return (char) ('a' + coordinate % 8);
+    }
+
+    private static char rankOf(final int coordinate) {
+        return (char) ('8' - coordinate / 8);
+    }
+
+}